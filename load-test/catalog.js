@@ -0,0 +1,66 @@
+// Prueba de carga del catálogo: 2000 conexiones concurrentes contra los endpoints públicos,
+// que son los que bloquean en JPA. Sirve para comparar los dos modos de ejecución:
+//
+//   VIRTUAL_THREADS_ENABLED=false docker compose up -d   (pool de Tomcat, 200 hilos)
+//   k6 run load-test/catalog.js --summary-export=platform.json
+//
+//   VIRTUAL_THREADS_ENABLED=true docker compose up -d    (un hilo virtual por petición)
+//   k6 run load-test/catalog.js --summary-export=virtual.json
+//
+// Comparar http_reqs (rate = throughput) y http_req_duration (p95/p99) entre ambos resultados,
+// con el mismo DB_POOL_SIZE: con hilos virtuales el límite pasa a ser el pool de Hikari,
+// así que también conviene mirar hikaricp_connections_pending en /actuator/metrics.
+// Todavía no hay resultados registrados de esta comparación: hasta tenerlos, el default sigue
+// siendo VIRTUAL_THREADS_ENABLED=false.
+//
+// Variables: BASE_URL (default http://localhost:8080), VUS (default 2000), DURATION (default 2m),
+// PRODUCT_IDS (cantidad de ids a recorrer, default 500).
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const PRODUCT_IDS = parseInt(__ENV.PRODUCT_IDS || '500', 10);
+const TERMS = ['remera', 'buzo', 'campera', 'pantalon', 'zapatilla'];
+
+// Los ids del detalle se eligen al azar y pueden no existir: un 404 es una respuesta esperada
+// y no tiene que contar en http_req_failed
+http.setResponseCallback(http.expectedStatuses(200, 404));
+
+export const options = {
+    scenarios: {
+        catalog: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: parseInt(__ENV.VUS || '2000', 10) },
+                { duration: __ENV.DURATION || '2m', target: parseInt(__ENV.VUS || '2000', 10) },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+function pick(values) {
+    return values[Math.floor(Math.random() * values.length)];
+}
+
+export default function () {
+    const roll = Math.random();
+    let res;
+    if (roll < 0.4) {
+        res = http.get(`${BASE_URL}/api/products/search?page=${Math.floor(Math.random() * 10)}&sizePage=20`, { tags: { name: 'listado' } });
+    } else if (roll < 0.7) {
+        const id = 1 + Math.floor(Math.random() * PRODUCT_IDS);
+        res = http.get(`${BASE_URL}/api/products/${id}`, { tags: { name: 'detalle' } });
+    } else if (roll < 0.9) {
+        res = http.get(`${BASE_URL}/api/products/search?search=${pick(TERMS)}&sizePage=20`, { tags: { name: 'busqueda' } });
+    } else {
+        res = http.get(`${BASE_URL}/api/products/featured`, { tags: { name: 'destacados' } });
+    }
+    check(res, { 'status 200/404': (r) => r.status === 200 || r.status === 404 });
+}
@@ -0,0 +1,57 @@
+package com.startup.ecommerce.v1.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuración de cachés en memoria (Caffeine).
+ * Cada caché tiene su propio tamaño máximo y TTL, y registra estadísticas que
+ * actuator publica como métricas (cache.gets, cache.puts, cache.evictions, ...).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_LISTS = "productLists";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.users.max-size:10000}") long usersMaxSize,
+            @Value("${app.cache.users.ttl:5m}") Duration usersTtl,
+            @Value("${app.cache.catalog.max-size:20000}") long catalogMaxSize,
+            @Value("${app.cache.catalog.ttl:10m}") Duration catalogTtl
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of()); // solo las cachés declaradas aquí
+        cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(usersTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(PRODUCTS, Caffeine.newBuilder()
+                .maximumSize(catalogMaxSize)
+                .expireAfterWrite(catalogTtl)
+                .recordStats()
+                .build());
+        // Listados completos (todos / destacados): pocas entradas, mismo TTL que el catálogo
+        cacheManager.registerCustomCache(PRODUCT_LISTS, Caffeine.newBuilder()
+                .maximumSize(10)
+                .expireAfterWrite(catalogTtl)
+                .recordStats()
+                .build());
+        // Las invalidaciones dentro de una transacción se aplican recién después del commit,
+        // así una lectura concurrente no vuelve a cachear datos viejos
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,81 @@
+package com.startup.ecommerce.v1.config;
+
+import com.startup.ecommerce.v1.datasource.ReplicaLagMonitor;
+import com.startup.ecommerce.v1.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de lectura (sólo si se define app.datasource.replica.urls).
+ * Las transacciones @Transactional(readOnly = true), incluidas las lecturas de los repositorios
+ * fuera de una transacción, van a una réplica al día; todo lo demás (checkout, carrito, stock,
+ * migraciones) va al primario.
+ * <p>
+ * LazyConnectionDataSourceProxy demora la conexión real hasta la primera sentencia, cuando ya se
+ * sabe si la transacción es de sólo lectura, y con eso elige el origen.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            DataSourceProperties properties,
+            @Value("${app.datasource.replica.urls}") List<String> urls,
+            @Value("${app.datasource.replica.username:}") String username,
+            @Value("${app.datasource.replica.password:}") String password,
+            @Value("${app.datasource.replica.pool-size:20}") int poolSize,
+            @Value("${app.datasource.replica.connection-timeout:PT2S}") Duration connectionTimeout,
+            @Value("${app.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${app.datasource.replica.max-lag:PT2S}") Duration maxLag,
+            @Value("${app.datasource.replica.lag-check-interval:PT2S}") Duration checkInterval,
+            @Value("${app.datasource.replica.lag-check-timeout:PT1S}") Duration checkTimeout
+    ) {
+        boolean ownCredentials = !username.isBlank(); // sin usuario propio, las mismas credenciales del primario
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(ownCredentials ? username : properties.determineUsername());
+            replica.setPassword(ownCredentials ? password : properties.determinePassword());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            // Una réplica caída no debe impedir el arranque: queda fuera de rotación hasta que responda
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaLagMonitor(replicas, lagQuery, maxLag, checkInterval, checkTimeout);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, replicaLagMonitor));
+        return dataSource;
+    }
+}
@@ -0,0 +1,15 @@
+package com.startup.ecommerce.v1.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita tareas en segundo plano (@Async / @Scheduled) sobre el executor
+ * y el scheduler que configura Spring Boot (spring.task.*).
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,13 +1,14 @@
 package com.startup.ecommerce.v1.config;
 
 import com.startup.ecommerce.v1.security.JwtAuthenticationFilter;
+import com.startup.ecommerce.v1.security.PasswordHasher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -21,6 +22,10 @@ public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // Puerto propio de actuator (-1 = el mismo de la API)
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -34,17 +39,26 @@ public class SecurityConfig {
                     "/v3/api-docs/**",
                     "/api/products",
                     "/api/products/search",
+                    "/api/products/search/scroll",
+                    "/api/products/scroll",
                     "/api/products/featured",
+                    "/api/products/export",
+                    "/api/products/suggest",
                     "/api/products/{id}"
                 ).permitAll()
+                // Scraping de Prometheus sin token, sólo por el puerto de management, que no se publica
+                // junto con la API; por el puerto público (o sin puerto propio) requiere autenticación
+                .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort
+                        && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
+    // Mismo costo calibrado que el login; los pedidos HTTP hashean a través de PasswordHasher
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHasher passwordHasher) {
+        return passwordHasher.encoder();
     }
 }
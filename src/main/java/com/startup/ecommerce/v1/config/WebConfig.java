@@ -0,0 +1,13 @@
+package com.startup.ecommerce.v1.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.web.config.EnableSpringDataWebSupport;
+
+/**
+ * Configuración web.
+ * Serializa las respuestas paginadas (Page) con un formato JSON estable: content + metadatos de página.
+ */
+@Configuration
+@EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
+public class WebConfig {
+}
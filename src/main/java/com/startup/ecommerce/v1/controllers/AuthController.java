@@ -7,6 +7,7 @@ import com.startup.ecommerce.v1.entities.UserEntity;
 import com.startup.ecommerce.v1.entities.enums.Role;
 import com.startup.ecommerce.v1.repositories.UserRepository;
 import com.startup.ecommerce.v1.security.JwtUtil;
+import com.startup.ecommerce.v1.security.PasswordHasher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,7 +16,6 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -25,28 +25,30 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
     @Operation(summary = "Iniciar sesión", description = "Autentica al usuario y devuelve un JWT.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Login exitoso", content = @Content(schema = @Schema(implementation = AuthResponseDto.class))),
-            @ApiResponse(responseCode = "401", description = "Credenciales inválidas")
+            @ApiResponse(responseCode = "401", description = "Credenciales inválidas"),
+            @ApiResponse(responseCode = "503", description = "Demasiadas solicitudes de autenticación en curso")
         })
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody AuthRequestDto request) {
         UserEntity user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new BadCredentialsException("Usuario o contraseña incorrectos"));
-        if (!user.isEnabled() || !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!user.isEnabled() || !passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new BadCredentialsException("Usuario o contraseña incorrectos");
         }
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
         return ResponseEntity.ok(new AuthResponseDto(token, user.getEmail(), user.getRole().name()));
     }
 
     @Operation(summary = "Registrar usuario", description = "Registra un nuevo usuario cliente y devuelve un JWT.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Registro exitoso", content = @Content(schema = @Schema(implementation = AuthResponseDto.class))),
-            @ApiResponse(responseCode = "400", description = "Email ya registrado")
+            @ApiResponse(responseCode = "400", description = "Email ya registrado"),
+            @ApiResponse(responseCode = "503", description = "Demasiadas solicitudes de autenticación en curso")
         })
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequestDto request) {
@@ -56,12 +58,12 @@ public class AuthController {
         UserEntity user = UserEntity.builder()
                 .name(request.getName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.encode(request.getPassword()))
                 .role(Role.CLIENTE)
                 .enabled(true)
                 .build();
         userRepository.save(user);
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
         return ResponseEntity.ok(new AuthResponseDto(token, user.getEmail(), user.getRole().name()));
     }
 
@@ -81,7 +83,7 @@ public class AuthController {
         }
         String email = jwtUtil.extractUsername(oldToken);
         UserEntity user = userRepository.findByEmail(email).orElseThrow();
-        String newToken = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String newToken = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
         return ResponseEntity.ok(new AuthResponseDto(newToken, user.getEmail(), user.getRole().name()));
     }
 
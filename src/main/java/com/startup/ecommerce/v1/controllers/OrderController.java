@@ -1,10 +1,12 @@
 package com.startup.ecommerce.v1.controllers;
 
 import com.startup.ecommerce.v1.dto.CreateOrderDto;
+import com.startup.ecommerce.v1.dto.CursorPageDto;
 import com.startup.ecommerce.v1.dto.OrderDto;
+import com.startup.ecommerce.v1.dto.OrderSummaryDto;
 import com.startup.ecommerce.v1.entities.enums.OrderStatus;
-import com.startup.ecommerce.v1.entities.UserEntity;
 import com.startup.ecommerce.v1.entities.enums.Role;
+import com.startup.ecommerce.v1.security.CustomUserDetailsService.UserPrincipal;
 import com.startup.ecommerce.v1.services.OrderService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,14 +16,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
@@ -57,7 +58,7 @@ public class OrderController {
             """)
     @PreAuthorize("hasRole('CLIENTE')")
     public ResponseEntity<OrderDto> createOrder(
-            @AuthenticationPrincipal UserEntity user,
+            @AuthenticationPrincipal UserPrincipal user,
             @Valid @RequestBody CreateOrderDto createOrderDto) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(orderService.createOrder(user.getId(), createOrderDto));
@@ -68,7 +69,7 @@ public class OrderController {
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
     public ResponseEntity<OrderDto> getOrder(
             @Parameter(description = "ID de la orden") @PathVariable Long id,
-            @AuthenticationPrincipal UserEntity user) {
+            @AuthenticationPrincipal UserPrincipal user) {
         OrderDto order = orderService.getOrderById(id);
         // Solo ADMIN puede ver cualquier orden, CLIENTE solo las suyas
         if (user.getRole() != Role.ADMIN && !order.getUserId().equals(user.getId())) {
@@ -78,11 +79,34 @@ public class OrderController {
     }
 
     @GetMapping("/my-orders")
-    @Operation(summary = "Listar mis órdenes", description = "Obtiene todas las órdenes del usuario autenticado")
+    @Operation(summary = "Listar mis órdenes", description = """
+            Obtiene las órdenes del usuario autenticado, paginadas y de la más reciente a la más antigua.
+            
+            Devuelve solo la cabecera de cada orden (número, estado, total, fecha y cantidad de items).
+            El detalle con los items se obtiene con GET /api/orders/{id}.
+            """)
+    @PreAuthorize("hasRole('CLIENTE')")
+    public ResponseEntity<Page<OrderSummaryDto>> getMyOrders(
+            @AuthenticationPrincipal UserPrincipal user,
+            @Parameter(description = "Número de página (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Elementos por página (máximo 100)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrderSummariesByUserId(user.getId(), page, size));
+    }
+
+    @GetMapping("/my-orders/scroll")
+    @Operation(summary = "Recorrer mis órdenes por cursor", description = """
+            Igual que /my-orders pero con paginación por cursor (keyset sobre fecha de creación e id).
+            El costo de cada página no depende de cuántas órdenes se hayan recorrido.
+            
+            Para la primera página se omite el cursor; para las siguientes se envía el nextCursor
+            de la respuesta anterior. nextCursor es null cuando no hay más órdenes.
+            """)
     @PreAuthorize("hasRole('CLIENTE')")
-    public ResponseEntity<List<OrderDto>> getMyOrders(
-            @AuthenticationPrincipal UserEntity user) {
-        return ResponseEntity.ok(orderService.getOrdersByUserId(user.getId()));
+    public ResponseEntity<CursorPageDto<OrderSummaryDto>> scrollMyOrders(
+            @AuthenticationPrincipal UserPrincipal user,
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Elementos por página (máximo 100)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.scrollOrderSummariesByUserId(user.getId(), cursor, size));
     }
 
     @PatchMapping("/{id}/status")
@@ -115,7 +139,7 @@ public class OrderController {
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
     public ResponseEntity<OrderDto> cancelOrder(
             @Parameter(description = "ID de la orden") @PathVariable Long id,
-            @AuthenticationPrincipal UserEntity user) {
+            @AuthenticationPrincipal UserPrincipal user) {
         OrderDto order = orderService.getOrderById(id);
         // Solo ADMIN puede cancelar cualquier orden, CLIENTE solo las suyas
         if (user.getRole() != Role.ADMIN && !order.getUserId().equals(user.getId())) {
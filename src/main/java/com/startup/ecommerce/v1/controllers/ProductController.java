@@ -1,7 +1,13 @@
 package com.startup.ecommerce.v1.controllers;
 
+import com.startup.ecommerce.v1.dto.CursorPageDto;
 import com.startup.ecommerce.v1.dto.ProductDto;
+import com.startup.ecommerce.v1.dto.ProductSearchResultDto;
+import com.startup.ecommerce.v1.dto.ProductSuggestionDto;
+import com.startup.ecommerce.v1.services.ProductExportService;
 import com.startup.ecommerce.v1.services.ProductService;
+import com.startup.ecommerce.v1.services.impl.CatalogVersions;
+import com.startup.ecommerce.v1.services.impl.FeaturedProductsSnapshot;
 import com.startup.ecommerce.v1.dto.CreateProductVariantDto;
 import com.startup.ecommerce.v1.dto.ProductVariantDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,8 +16,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -39,13 +51,20 @@ import org.springframework.security.access.prepost.PreAuthorize;
     """)
 public class ProductController {
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final FeaturedProductsSnapshot featuredProductsSnapshot;
+    private final CatalogVersions catalogVersions;
 
     @Operation(summary = "Obtener todos los productos", responses = {
-        @ApiResponse(responseCode = "200", description = "Listado de productos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDto.class)))
+        @ApiResponse(responseCode = "200", description = "Listado de productos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDto.class))),
+        @ApiResponse(responseCode = "304", description = "Sin cambios respecto del ETag enviado en If-None-Match")
     })
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<ProductDto>> getAllProducts(WebRequest request) {
+        // La versión se toma antes de leer los datos: si cambian en el medio, el próximo pedido no coincide
+        String etag = catalogVersions.catalogTag();
+        if (request.checkNotModified(etag)) return null; // 304 sin pasar por el servicio
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogVersions.cacheControl()).body(productService.getAllProducts());
     }
 
     @Operation(
@@ -54,13 +73,17 @@ public class ProductController {
             Búsqueda avanzada de productos con múltiples criterios:
             
             Filtros disponibles:
-            - search: Búsqueda por nombre o descripción
+            - search: Texto libre sobre nombre, categoría, color de las variantes y SKU.
+              Cada palabra también se busca como prefijo ("rem" encuentra "remera") y deben estar todas.
+              Con más de 5000 coincidencias se buscan por SQL las palabras en el nombre (la relevancia
+              sigue ordenando los resultados).
             - category: Filtrar por categoría
             - size: Filtrar por talla (XS, S, M, L, XL, XXL)
             - color: Filtrar por color
             - minPrice/maxPrice: Rango de precios
             
             Ordenamiento (parámetro sort):
+            - relevance: Más relevantes primero (por defecto cuando hay search)
             - price_asc: Precio ascendente
             - price_desc: Precio descendente
             - name_asc: Nombre A-Z
@@ -69,18 +92,25 @@ public class ProductController {
             
             Paginación:
             - page: Número de página (0-based)
-            - sizePage: Elementos por página
+            - sizePage: Elementos por página (máximo 100)
+            
+            La respuesta incluye los productos de la página y los totales (totalElements, totalPages).
+            
+            Facetas (facets=true): conteos por categoría, talla, color y rango de precio sobre
+            todos los resultados de la búsqueda, para mostrar junto a cada filtro ("M (124)").
+            Cada faceta se cuenta sin su propio filtro: con size=M, la faceta de talla indica
+            cuántos resultados habría eligiendo cada talla.
             """,
         responses = {
             @ApiResponse(
                 responseCode = "200",
                 description = "Listado filtrado y paginado de productos",
-                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDto.class))
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductSearchResultDto.class))
             )
         }
     )
     @GetMapping("/search")
-    public ResponseEntity<List<ProductDto>> searchProducts(
+    public ResponseEntity<ProductSearchResultDto> searchProducts(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String size,
@@ -89,28 +119,147 @@ public class ProductController {
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int sizePage,
+            @RequestParam(defaultValue = "false") boolean facets
+    ) {
+        PagedModel<ProductDto> results = new PagedModel<>(productService.searchProducts(search, category, size, color, minPrice, maxPrice, sort, page, sizePage));
+        return ResponseEntity.ok(ProductSearchResultDto.builder()
+                .content(results.getContent())
+                .page(results.getMetadata())
+                .facets(facets ? productService.getSearchFacets(search, category, size, color, minPrice, maxPrice) : null)
+                .build());
+    }
+
+    @Operation(
+        summary = "Recorrer productos con filtros por cursor",
+        description = """
+            Mismos filtros que /search, con paginación por cursor (keyset sobre la columna de orden e id).
+            Cada página cuesta lo mismo sin importar cuántas se hayan recorrido antes.
+            
+            Ordenamiento (parámetro sort): price_asc, price_desc, name_asc, name_desc, created_desc.
+            Sin sort se ordena por id; el orden por relevancia solo está disponible en /search.
+            
+            Para la primera página se omite el cursor; para las siguientes se envía el nextCursor
+            de la respuesta anterior con los mismos filtros y orden. nextCursor es null cuando no hay más.
+            """,
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Página de productos"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido o generado con otro orden")
+        }
+    )
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorPageDto<ProductDto>> scrollSearch(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String size,
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "12") int sizePage
     ) {
-        return ResponseEntity.ok(productService.searchProducts(search, category, size, color, minPrice, maxPrice, sort, page, sizePage));
+        return ResponseEntity.ok(productService.scrollProducts(search, category, size, color, minPrice, maxPrice, sort, cursor, sizePage));
+    }
+
+    @Operation(
+        summary = "Recorrer todos los productos por cursor",
+        description = """
+            Listado completo paginado por cursor, como alternativa a GET /api/products para catálogos grandes.
+            Admite los mismos valores de sort que /search/scroll.
+            """,
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Página de productos"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido o generado con otro orden")
+        }
+    )
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<ProductDto>> scrollProducts(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int sizePage
+    ) {
+        return ResponseEntity.ok(productService.scrollProducts(null, null, null, null, null, null, sort, cursor, sizePage));
+    }
+
+    @Operation(
+        summary = "Exportar el catálogo completo",
+        description = """
+            Catálogo completo con stock y variantes, pensado para feeds de terceros.
+            Se escribe a medida que se lee de la base, sin armar la lista entera en memoria.
+            
+            Formatos (parámetro format):
+            - ndjson: un producto JSON por línea (por defecto)
+            - csv: id,name,price,category,image,featured,stock,skus (SKUs separados por |)
+            """,
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Catálogo exportado"),
+            @ApiResponse(responseCode = "400", description = "Formato no soportado"),
+            @ApiResponse(responseCode = "503", description = "Demasiadas exportaciones en curso")
+        }
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog(@RequestParam(defaultValue = "ndjson") String format) {
+        ProductExportService.Format exportFormat;
+        try {
+            exportFormat = ProductExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        MediaType mediaType = exportFormat == ProductExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        // El lugar se reserva antes de responder, para poder contestar 503 en lugar de un 200 que no llega a escribirse
+        ProductExportService.Slot slot = productExportService.reserveSlot();
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                productExportService.exportCatalog(exportFormat, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog." + format.toLowerCase() + "\"")
+                .body(body);
+    }
+
+    @Operation(
+        summary = "Autocompletar búsqueda de productos",
+        description = """
+            Sugerencias para el buscador a medida que se escribe: productos con alguna palabra
+            del nombre que empieza con q (sin distinguir mayúsculas ni acentos), los más vendidos primero.
+            Se responde desde memoria, sin consultar la base: los productos nuevos o modificados aparecen
+            a los pocos segundos y las unidades vendidas se recalculan periódicamente (cada 10 minutos por defecto).
+            """,
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Sugerencias (máximo 20)")
+        }
+    )
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDto>> suggest(@RequestParam String q, @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productService.suggest(q, limit));
     }
 
     @Operation(summary = "Obtener producto por ID", responses = {
         @ApiResponse(responseCode = "200", description = "Producto encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDto.class))),
+        @ApiResponse(responseCode = "304", description = "Sin cambios respecto del ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Producto no encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, WebRequest request) {
+        String etag = catalogVersions.productTag(id);
+        if (request.checkNotModified(etag)) return null;
         ProductDto dto = productService.getProductById(id);
         if (dto == null) return ResponseEntity.notFound().build();
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogVersions.cacheControl()).body(dto);
     }
 
     @Operation(summary = "Obtener productos destacados", responses = {
         @ApiResponse(responseCode = "200", description = "Listado de destacados", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDto.class)))
     })
-    @GetMapping("/featured")
-    public ResponseEntity<List<ProductDto>> getFeaturedProducts() {
-        return ResponseEntity.ok(productService.getFeaturedProducts());
+    @GetMapping(value = "/featured", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getFeaturedProducts() {
+        // JSON precalculado: sin consultas ni serialización por petición
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(featuredProductsSnapshot.json());
     }
 
     @Operation(summary = "Crear producto", responses = {
@@ -154,8 +303,10 @@ public class ProductController {
 
     @Operation(summary = "Listar variantes de un producto")
     @GetMapping("/{productId}/variants")
-    public ResponseEntity<List<ProductVariantDto>> listVariants(@PathVariable Long productId) {
-        return ResponseEntity.ok(productService.listVariants(productId));
+    public ResponseEntity<List<ProductVariantDto>> listVariants(@PathVariable Long productId, WebRequest request) {
+        String etag = catalogVersions.productTag(productId);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogVersions.cacheControl()).body(productService.listVariants(productId));
     }
 
     @Operation(summary = "Actualizar una variante")
@@ -0,0 +1,142 @@
+package com.startup.ecommerce.v1.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide periódicamente el atraso de cada réplica y publica cuáles pueden recibir lecturas.
+ * Una réplica queda afuera si su atraso supera max-lag, si no está replicando o si no responde;
+ * vuelve a entrar en el siguiente chequeo que la encuentre al día.
+ * <p>
+ * La consulta por defecto es SHOW REPLICA STATUS (columna Seconds_Behind_Source); cualquier otra
+ * consulta debe devolver el atraso en segundos en la primera columna.
+ * <p>
+ * Los chequeos corren en un hilo propio y no en el scheduler de @Scheduled, para que una réplica
+ * colgada no demore al resto de las tareas programadas. Cada consulta tiene timeout (de sentencia y
+ * de red); si aun así un chequeo no termina, pasado dos intervalos más ese timeout sin chequeos
+ * completos ninguna réplica recibe lecturas.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements Closeable {
+
+    private static final String MYSQL_LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkTimeout;
+    private final long staleAfterNanos;
+    private final Set<String> unhealthy = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-lag").daemon().factory());
+
+    private volatile List<String> healthy = List.of();
+    private volatile long lastCheck = System.nanoTime();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, String lagQuery, Duration maxLag,
+                             Duration checkInterval, Duration checkTimeout) {
+        this.replicas = Map.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checkTimeout = checkTimeout;
+        this.staleAfterNanos = checkInterval.multipliedBy(2).plus(checkTimeout).toNanos();
+        // Hasta el primer chequeo ninguna réplica recibe lecturas
+        unhealthy.addAll(this.replicas.keySet());
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public DataSource replica(String name) {
+        return replicas.get(name);
+    }
+
+    /**
+     * Réplicas al día en el último chequeo (vacío = leer del primario).
+     */
+    public List<String> healthyReplicas() {
+        if (System.nanoTime() - lastCheck > staleAfterNanos) return List.of(); // chequeos trabados
+        return healthy;
+    }
+
+    /**
+     * Saca una réplica de la rotación hasta el próximo chequeo (por ejemplo, si no entrega conexiones).
+     */
+    public void markDown(String name, Exception cause) {
+        if (unhealthy.add(name)) {
+            log.warn("Réplica {} fuera de servicio, las lecturas van al primario: {}", name, cause.getMessage());
+            publish();
+        }
+    }
+
+    public void check() {
+        replicas.forEach((name, dataSource) -> {
+            String problem = problem(dataSource);
+            if (problem == null) {
+                if (unhealthy.remove(name)) log.info("Réplica {} al día, vuelve a recibir lecturas", name);
+            } else if (unhealthy.add(name)) {
+                log.warn("Réplica {} fuera de servicio, las lecturas van al primario: {}", name, problem);
+            }
+        });
+        publish();
+        lastCheck = System.nanoTime();
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable closeable) closeable.close();
+        }
+    }
+
+    private void publish() {
+        healthy = replicas.keySet().stream().filter(name -> !unhealthy.contains(name)).sorted().toList();
+    }
+
+    /**
+     * Motivo por el que la réplica no debe recibir lecturas, o null si está al día.
+     */
+    private String problem(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // Hikari restaura el timeout de red al devolver la conexión al pool
+            connection.setNetworkTimeout(scheduler, Math.toIntExact(checkTimeout.toMillis()));
+            statement.setQueryTimeout(Math.toIntExact(Math.max(checkTimeout.toSeconds(), 1)));
+            return problem(statement.executeQuery(lagQuery));
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String problem(ResultSet rs) throws SQLException {
+        try (rs) {
+            if (!rs.next()) return "no está replicando";
+            long lagSeconds = rs.getLong(lagColumn(rs.getMetaData()));
+            if (rs.wasNull()) return "la replicación está detenida";
+            if (lagSeconds > maxLag.toSeconds()) return "atraso de " + lagSeconds + " s";
+            return null;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (MYSQL_LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) return i;
+        }
+        return 1;
+    }
+}
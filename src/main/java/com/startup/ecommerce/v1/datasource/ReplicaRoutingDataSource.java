@@ -0,0 +1,57 @@
+package com.startup.ecommerce.v1.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Origen de las conexiones de sólo lectura: reparte entre las réplicas al día (round robin)
+ * y usa el primario cuando no hay ninguna o la elegida no entrega conexión.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor monitor;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaLagMonitor monitor) {
+        this.primary = primary;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String replica = nextReplica();
+        if (replica != null) {
+            try {
+                return monitor.replica(replica).getConnection();
+            } catch (SQLException e) {
+                monitor.markDown(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        String replica = nextReplica();
+        if (replica != null) {
+            try {
+                return monitor.replica(replica).getConnection(username, password);
+            } catch (SQLException e) {
+                monitor.markDown(replica, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private String nextReplica() {
+        List<String> healthy = monitor.healthyReplicas();
+        if (healthy.isEmpty()) return null;
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+}
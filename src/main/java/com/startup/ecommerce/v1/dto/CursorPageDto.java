@@ -0,0 +1,26 @@
+package com.startup.ecommerce.v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor (keyset).
+ * nextCursor es null cuando no hay más resultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+
+    private List<T> content;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+
+}
@@ -0,0 +1,21 @@
+package com.startup.ecommerce.v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Valor de un filtro y cuántos productos de la búsqueda actual lo tienen.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetCountDto {
+
+    private String value;
+
+    private long count;
+
+}
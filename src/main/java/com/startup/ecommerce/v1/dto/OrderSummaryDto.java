@@ -0,0 +1,34 @@
+package com.startup.ecommerce.v1.dto;
+
+import com.startup.ecommerce.v1.entities.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cabecera de una orden para los listados (sin items).
+ * El detalle completo se obtiene con GET /api/orders/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryDto {
+
+    private Long id;
+
+    private String orderNumber;
+
+    private OrderStatus status;
+
+    private BigDecimal totalAmount;
+
+    private LocalDateTime createdAt;
+
+    private Integer itemCount;
+
+}
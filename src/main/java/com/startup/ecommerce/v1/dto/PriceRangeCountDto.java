@@ -0,0 +1,24 @@
+package com.startup.ecommerce.v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rango de precios [from, to) y cuántos productos de la búsqueda actual caen en él.
+ * from es null en el primer rango y to en el último.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceRangeCountDto {
+
+    private Double from;
+
+    private Double to;
+
+    private long count;
+
+}
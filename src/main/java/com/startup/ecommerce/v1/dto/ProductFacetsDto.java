@@ -0,0 +1,30 @@
+package com.startup.ecommerce.v1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Conteos por filtro sobre el conjunto completo de resultados de una búsqueda (no solo la página).
+ * Cada producto se cuenta una vez por valor, aunque tenga varias variantes con esa talla o color.
+ * Cada faceta se cuenta con todos los filtros menos el suyo: con talla M elegida, la faceta de
+ * talla sigue mostrando cuántos resultados habría con cada una de las otras.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacetsDto {
+
+    private List<FacetCountDto> categories;
+
+    private List<FacetCountDto> sizes;
+
+    private List<FacetCountDto> colors;
+
+    private List<PriceRangeCountDto> prices;
+
+}
@@ -0,0 +1,29 @@
+package com.startup.ecommerce.v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.web.PagedModel;
+
+import java.util.List;
+
+/**
+ * Resultado de /api/products/search: mismo formato que una página (content + page)
+ * y, si se pidieron, los conteos por filtro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSearchResultDto {
+
+    private List<ProductDto> content;
+
+    private PagedModel.PageMetadata page;
+
+    private ProductFacetsDto facets;
+
+}
@@ -0,0 +1,12 @@
+package com.startup.ecommerce.v1.dto;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductSuggestionDto {
+    private Long id;
+    private String name;
+}
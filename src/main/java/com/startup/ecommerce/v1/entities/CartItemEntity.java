@@ -13,8 +13,11 @@ import lombok.*;
        uniqueConstraints = @UniqueConstraint(name = "uk_cart_item_unique", columnNames = {"cart_id", "product_id", "variant_id"}))
 public class CartItemEntity extends BaseAuditEntity {
 
+    // Secuencia con optimizador pooled (en MySQL se emula con una tabla): a diferencia de IDENTITY
+    // permite que Hibernate agrupe los INSERT en batches JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,6 +1,7 @@
 package com.startup.ecommerce.v1.entities;
 
 import java.util.Set;
+import com.startup.ecommerce.v1.services.impl.CatalogVersionListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,6 +9,7 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Table(name = "category")
 public class CategoryEntity {
     @Id
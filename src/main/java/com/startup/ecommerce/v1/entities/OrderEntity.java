@@ -28,8 +28,12 @@ public class OrderEntity extends BaseAuditEntity {
     @JoinColumn(name = "user_id", nullable = false)
     private UserEntity user;
     
+    // Excluido de equals/hashCode/toString: los items referencian a la orden y la recursión
+    // rompe la carga de la colección (los items se agregan a un Set mientras se inicializa)
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<OrderItemEntity> items = new LinkedHashSet<>();
     
     @Enumerated(EnumType.STRING)
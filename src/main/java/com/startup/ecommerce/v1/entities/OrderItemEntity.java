@@ -13,12 +13,17 @@ import java.math.BigDecimal;
 @EqualsAndHashCode(callSuper = true)
 public class OrderItemEntity extends BaseAuditEntity {
     
+    // Secuencia con optimizador pooled (en MySQL se emula con una tabla): a diferencia de IDENTITY
+    // permite que Hibernate agrupe los INSERT en batches JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private OrderEntity order;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.startup.ecommerce.v1.entities;
 
+import com.startup.ecommerce.v1.services.impl.CatalogVersionListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,6 +9,7 @@ import lombok.*;
 @Getter
 @Setter
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Table(name = "product")
 public class ProductEntity extends BaseAuditEntity {
     @Id
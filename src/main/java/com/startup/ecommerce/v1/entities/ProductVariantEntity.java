@@ -1,11 +1,13 @@
 package com.startup.ecommerce.v1.entities;
 
+import com.startup.ecommerce.v1.services.impl.CatalogVersionListener;
 import jakarta.persistence.*;
 import lombok.*;
 import com.startup.ecommerce.v1.entities.enums.Size;
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Table(name = "product_variant",
        uniqueConstraints = @UniqueConstraint(name = "uk_product_variant_unique", columnNames = {"product_id","size","color_hex"}))
 @Data
@@ -0,0 +1,24 @@
+package com.startup.ecommerce.v1.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Versiones de un producto para los ETag del catálogo; las mantiene CatalogVersions.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "product_version")
+public class ProductVersionEntity {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "data_version", nullable = false)
+    private Long dataVersion; // Producto, variantes y categoría
+
+    @Column(name = "stock_version", nullable = false)
+    private Long stockVersion;
+}
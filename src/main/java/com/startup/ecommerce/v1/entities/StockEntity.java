@@ -1,5 +1,6 @@
 package com.startup.ecommerce.v1.entities;
 
+import com.startup.ecommerce.v1.services.impl.CatalogVersionListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,6 +10,7 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Table(name = "stock")
 public class StockEntity extends BaseAuditEntity {
     @Id
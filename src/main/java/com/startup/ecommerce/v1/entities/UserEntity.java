@@ -1,6 +1,7 @@
 package com.startup.ecommerce.v1.entities;
 
 import com.startup.ecommerce.v1.entities.enums.Role;
+import com.startup.ecommerce.v1.security.UserDetailsCacheListener;
 
 import jakarta.persistence.*;
 import lombok.*;
@@ -11,6 +12,7 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(UserDetailsCacheListener.class)
 @Table(name = "user")
 public class UserEntity extends BaseAuditEntity {
     @Id
@@ -0,0 +1,8 @@
+package com.startup.ecommerce.v1.events;
+
+/**
+ * Se publica cuando cambian los datos de un producto o de sus variantes
+ * (alta, modificación, baja). No se publica por cambios de stock.
+ */
+public record ProductCatalogChangedEvent(Long productId) {
+}
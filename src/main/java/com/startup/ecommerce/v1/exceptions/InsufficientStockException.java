@@ -0,0 +1,34 @@
+package com.startup.ecommerce.v1.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Se lanza cuando una reserva de varias líneas no puede completarse.
+ * Incluye el detalle de cada línea que falló para poder informarlo al cliente.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<Shortage> shortages;
+
+    public InsufficientStockException(List<Shortage> shortages) {
+        super("Stock insuficiente para los productos: " + shortages.stream()
+                .map(s -> s.productId() + " (disponible: " + s.available() + ", solicitado: " + s.requested() + ")")
+                .collect(Collectors.joining(", ")));
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<Shortage> getShortages() {
+        return shortages;
+    }
+
+    /**
+     * Línea que no pudo reservarse. available es 0 si el producto no tiene stock registrado.
+     */
+    public record Shortage(Long productId, int requested, int available) {
+    }
+}
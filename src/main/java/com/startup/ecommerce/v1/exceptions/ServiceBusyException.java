@@ -0,0 +1,20 @@
+package com.startup.ecommerce.v1.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * El servicio está saturado y rechaza el pedido en lugar de encolarlo sin límite.
+ * El cliente puede reintentar en unos segundos.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
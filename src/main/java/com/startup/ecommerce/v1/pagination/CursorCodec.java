@@ -0,0 +1,40 @@
+package com.startup.ecommerce.v1.pagination;
+
+import com.startup.ecommerce.v1.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Codifica y decodifica los cursores opacos de la paginación keyset.
+ * Un cursor es la lista de valores de la última fila entregada (clave de orden + id),
+ * cada uno en Base64 URL-safe y separados por punto.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = ".";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String... parts) {
+        return String.join(SEPARATOR, Arrays.stream(parts)
+                .map(p -> Base64.getUrlEncoder().withoutPadding().encodeToString(p.getBytes(StandardCharsets.UTF_8)))
+                .toArray(String[]::new));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        String[] encoded = cursor.split("\\" + SEPARATOR, -1);
+        if (encoded.length != expectedParts) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+        try {
+            return Arrays.stream(encoded)
+                    .map(p -> new String(Base64.getUrlDecoder().decode(p), StandardCharsets.UTF_8))
+                    .toArray(String[]::new);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor inválido", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.startup.ecommerce.v1.repositories;
 
 import com.startup.ecommerce.v1.entities.CartEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +12,10 @@ public interface CartRepository extends JpaRepository<CartEntity, Long> {
 
     Optional<CartEntity> findByUserId(Long userId);
 
+    // Checkout: el carrito con sus items, variantes y productos en una sola consulta
+    @EntityGraph(attributePaths = {"items", "items.variant", "items.variant.product"})
+    Optional<CartEntity> findWithItemsByUserId(Long userId);
+
 }
 
 
@@ -4,6 +4,7 @@ import com.startup.ecommerce.v1.entities.OrderEntity;
 import com.startup.ecommerce.v1.entities.OrderItemEntity;
 import com.startup.ecommerce.v1.entities.ProductEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +15,15 @@ public interface OrderItemRepository extends JpaRepository<OrderItemEntity, Long
     List<OrderItemEntity> findByOrder(OrderEntity order);
     
     List<OrderItemEntity> findByProduct(ProductEntity product);
+
+    interface ProductUnitsSold {
+        Long getProductId();
+        Long getUnits();
+    }
+
+    /**
+     * Unidades vendidas por producto (popularidad para el autocompletado).
+     */
+    @Query("select oi.product.id as productId, sum(oi.quantity) as units from OrderItemEntity oi group by oi.product.id")
+    List<ProductUnitsSold> sumUnitsSoldByProduct();
 }
\ No newline at end of file
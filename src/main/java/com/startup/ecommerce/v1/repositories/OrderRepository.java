@@ -1,13 +1,20 @@
 package com.startup.ecommerce.v1.repositories;
 
+import com.startup.ecommerce.v1.dto.OrderSummaryDto;
 import com.startup.ecommerce.v1.entities.OrderEntity;
 import com.startup.ecommerce.v1.entities.UserEntity;
 import com.startup.ecommerce.v1.entities.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,4 +27,37 @@ public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
     Page<OrderEntity> findByStatus(OrderStatus status, Pageable pageable);
     
     Page<OrderEntity> findByUserAndStatus(UserEntity user, OrderStatus status, Pageable pageable);
+
+    // Carga la orden completa (usuario, items, producto y variante) en una sola consulta
+    @EntityGraph(attributePaths = {"user", "items", "items.product", "items.variant"})
+    Optional<OrderEntity> findWithDetailsById(Long id);
+
+    // Listados de cabeceras (proyección a DTO, sin cargar entidades ni items)
+
+    @Query(value = """
+            select new com.startup.ecommerce.v1.dto.OrderSummaryDto(o.id, o.orderNumber, o.status, o.totalAmount, o.createdAt, size(o.items))
+            from OrderEntity o where o.user.id = :userId
+            """,
+            countQuery = "select count(o) from OrderEntity o where o.user.id = :userId")
+    Page<OrderSummaryDto> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            select new com.startup.ecommerce.v1.dto.OrderSummaryDto(o.id, o.orderNumber, o.status, o.totalAmount, o.createdAt, size(o.items))
+            from OrderEntity o where o.user.id = :userId
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderSummaryDto> findLatestSummariesByUserId(@Param("userId") Long userId, Limit limit);
+
+    // Keyset: continúa después de la última orden entregada (createdAt, id), sin OFFSET
+    @Query("""
+            select new com.startup.ecommerce.v1.dto.OrderSummaryDto(o.id, o.orderNumber, o.status, o.totalAmount, o.createdAt, size(o.items))
+            from OrderEntity o
+            where o.user.id = :userId
+              and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderSummaryDto> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Limit limit);
 }
\ No newline at end of file
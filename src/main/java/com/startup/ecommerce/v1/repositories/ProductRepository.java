@@ -1,13 +1,29 @@
 package com.startup.ecommerce.v1.repositories;
 
 import com.startup.ecommerce.v1.entities.ProductEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
+public interface ProductRepository extends JpaRepository<ProductEntity, Long>, JpaSpecificationExecutor<ProductEntity>, ProductRepositoryCustom {
 
     List<ProductEntity> findByFeaturedTrue();
+
+    /**
+     * Recorre todo el catálogo hacia adelante, de a EXPORT_FETCH_SIZE filas por viaje al servidor.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select p from ProductEntity p left join fetch p.category order by p.id")
+    Stream<ProductEntity> streamAllForExport();
+
+    int EXPORT_FETCH_SIZE = 500;
 }
@@ -0,0 +1,41 @@
+package com.startup.ecommerce.v1.repositories;
+
+import com.startup.ecommerce.v1.dto.FacetCountDto;
+import com.startup.ecommerce.v1.dto.PriceRangeCountDto;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Consultas de ProductRepository que se arman con Criteria a mano.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Solo los ids de los productos que cumplen la Specification, sin cargar las entidades.
+     */
+    List<Long> findIds(Specification<ProductEntity> spec);
+
+    /**
+     * Productos que cumplen la Specification por categoría (GROUP BY), de mayor a menor conteo.
+     */
+    List<FacetCountDto> countByCategory(Specification<ProductEntity> spec);
+
+    /**
+     * Productos que cumplen la Specification por talla, contando solo las variantes del color indicado
+     * (si llega): la talla y el color tienen que darse en la misma variante, como en el filtro.
+     */
+    List<FacetCountDto> countBySize(Specification<ProductEntity> spec, String color);
+
+    /**
+     * Productos que cumplen la Specification por color, contando solo las variantes de la talla indicada (si llega).
+     */
+    List<FacetCountDto> countByColor(Specification<ProductEntity> spec, String size);
+
+    /**
+     * Productos que cumplen la Specification por rango de precio, en orden de precio y sin los rangos vacíos.
+     * @param priceBounds límites de los rangos de precio, en orden ascendente
+     */
+    List<PriceRangeCountDto> countByPriceRange(Specification<ProductEntity> spec, List<Double> priceBounds);
+}
@@ -0,0 +1,108 @@
+package com.startup.ecommerce.v1.repositories;
+
+import com.startup.ecommerce.v1.dto.FacetCountDto;
+import com.startup.ecommerce.v1.dto.PriceRangeCountDto;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.repositories.specifications.ProductSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+@RequiredArgsConstructor
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<ProductEntity> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ProductEntity> root = query.from(ProductEntity.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        query.select(root.get("id"));
+        if (predicate != null) query.where(predicate);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<FacetCountDto> countByCategory(Specification<ProductEntity> spec) {
+        return countBy(spec, (root, cb) -> root.join("category").get("name"));
+    }
+
+    @Override
+    public List<FacetCountDto> countBySize(Specification<ProductEntity> spec, String color) {
+        return countBy(spec, (root, cb) -> variantAttribute(root, cb, "size", null, color));
+    }
+
+    @Override
+    public List<FacetCountDto> countByColor(Specification<ProductEntity> spec, String size) {
+        return countBy(spec, (root, cb) -> variantAttribute(root, cb, "colorName", size, null));
+    }
+
+    @Override
+    public List<PriceRangeCountDto> countByPriceRange(Specification<ProductEntity> spec, List<Double> priceBounds) {
+        PriceRangeCountDto[] ranges = new PriceRangeCountDto[priceBounds.size() + 1];
+        for (FacetCountDto bucket : countBy(spec, (root, cb) -> priceBucket(root, cb, priceBounds))) {
+            int index = Integer.parseInt(bucket.getValue());
+            ranges[index] = new PriceRangeCountDto(
+                    index == 0 ? null : priceBounds.get(index - 1),
+                    index == priceBounds.size() ? null : priceBounds.get(index),
+                    bucket.getCount());
+        }
+        return Arrays.stream(ranges).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * SELECT clave, COUNT(DISTINCT p.id) ... GROUP BY clave, de mayor a menor conteo.
+     */
+    private List<FacetCountDto> countBy(Specification<ProductEntity> spec,
+                                        BiFunction<Root<ProductEntity>, CriteriaBuilder, Expression<?>> key) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ProductEntity> root = query.from(ProductEntity.class);
+        Expression<?> facet = key.apply(root, cb);
+        Expression<Long> count = cb.countDistinct(root.get("id"));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        query.multiselect(facet, count).groupBy(facet).orderBy(cb.desc(count));
+        if (predicate != null) query.where(predicate);
+        return entityManager.createQuery(query).getResultList().stream()
+                .filter(row -> row.get(0) != null)
+                .map(row -> new FacetCountDto(String.valueOf(row.get(0)), row.get(1, Long.class)))
+                .toList();
+    }
+
+    /**
+     * Atributo de las variantes del producto, con el join restringido a la talla y el color indicados.
+     */
+    private static Expression<?> variantAttribute(Root<ProductEntity> root, CriteriaBuilder cb, String attribute, String size, String color) {
+        Join<ProductEntity, ProductVariantEntity> variant = root.join("variants");
+        Predicate matches = ProductSpecifications.variantMatches(cb, variant, size, color);
+        if (matches != null) variant.on(matches);
+        return variant.get(attribute);
+    }
+
+    /**
+     * Índice del rango de precio: 0 para precio < priceBounds[0], n para precio >= priceBounds[n-1].
+     */
+    private static Expression<Integer> priceBucket(Root<ProductEntity> root, CriteriaBuilder cb, List<Double> priceBounds) {
+        Expression<Double> price = root.get("price");
+        CriteriaBuilder.Case<Integer> bucket = cb.selectCase();
+        for (int i = 0; i < priceBounds.size(); i++) {
+            bucket = bucket.when(cb.lessThan(price, priceBounds.get(i)), i);
+        }
+        return bucket.otherwise(priceBounds.size());
+    }
+}
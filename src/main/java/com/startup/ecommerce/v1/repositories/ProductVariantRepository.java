@@ -6,7 +6,12 @@ import com.startup.ecommerce.v1.entities.enums.Size;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ProductVariantRepository extends JpaRepository<ProductVariantEntity, Long> {
     boolean existsByProductAndSizeAndColorHexIgnoreCase(ProductEntity product, Size size, String colorHex);
+
+    List<ProductVariantEntity> findByProductIdIn(Collection<Long> productIds);
 }
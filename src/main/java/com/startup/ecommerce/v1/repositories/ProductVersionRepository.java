@@ -0,0 +1,43 @@
+package com.startup.ecommerce.v1.repositories;
+
+import com.startup.ecommerce.v1.entities.ProductVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ProductVersionRepository extends JpaRepository<ProductVersionEntity, Long> {
+
+    /** Suma de las versiones de todos los productos: cambia con cualquier cambio del catálogo. */
+    interface CatalogVersion {
+        long getData();
+        long getStock();
+    }
+
+    @Query("""
+            select coalesce(sum(v.dataVersion), 0) as data, coalesce(sum(v.stockVersion), 0) as stock
+            from ProductVersionEntity v
+            """)
+    CatalogVersion catalogVersion();
+
+    // Devuelven la cantidad de filas afectadas: los productos sin fila todavía no tienen versión
+
+    @Modifying(flushAutomatically = true)
+    @Query("update ProductVersionEntity v set v.dataVersion = v.dataVersion + 1 where v.productId in :productIds")
+    int incrementData(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update ProductVersionEntity v set v.stockVersion = v.stockVersion + 1 where v.productId in :productIds")
+    int incrementStock(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update ProductVersionEntity v set v.dataVersion = v.dataVersion + 1
+            where v.productId in (select p.id from ProductEntity p where p.category.id in :categoryIds)
+            """)
+    int incrementDataByCategory(@Param("categoryIds") Collection<Long> categoryIds);
+}
@@ -2,9 +2,16 @@ package com.startup.ecommerce.v1.repositories;
 
 import com.startup.ecommerce.v1.entities.StockEntity;
 import com.startup.ecommerce.v1.entities.ProductEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +21,36 @@ public interface StockRepository extends JpaRepository<StockEntity, Long> {
     
     Optional<StockEntity> findByProductId(Long productId);
 
+    List<StockEntity> findByProductIdIn(Collection<Long> productIds);
+
+    // Bloquea las filas siempre en el mismo orden (por producto) para evitar deadlocks entre checkouts
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StockEntity s where s.product.id in :productIds order by s.product.id")
+    List<StockEntity> findAllByProductIdForUpdate(@Param("productIds") Collection<Long> productIds);
+
+    // Actualizaciones condicionales: la validación y el cambio ocurren en un único UPDATE,
+    // por lo que no hay lecturas previas ni actualizaciones perdidas entre checkouts concurrentes.
+    // Devuelven la cantidad de filas afectadas (0 = stock inexistente o insuficiente).
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update StockEntity s set s.reserved = s.reserved + :quantity, s.updatedAt = local datetime
+            where s.product.id = :productId and s.quantity - s.reserved >= :quantity
+            """)
+    int reserve(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update StockEntity s set s.reserved = s.reserved - :quantity, s.updatedAt = local datetime
+            where s.product.id = :productId and s.reserved >= :quantity
+            """)
+    int release(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update StockEntity s set s.quantity = s.quantity - :quantity, s.updatedAt = local datetime
+            where s.product.id = :productId and s.quantity - s.reserved >= :quantity
+            """)
+    int consume(@Param("productId") Long productId, @Param("quantity") int quantity);
+
 }
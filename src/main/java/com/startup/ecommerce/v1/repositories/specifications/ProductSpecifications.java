@@ -0,0 +1,161 @@
+package com.startup.ecommerce.v1.repositories.specifications;
+
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.entities.enums.Size;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Specifications de JPA para la búsqueda de productos.
+ * Cada filtro devuelve null cuando no aplica, de modo que pueden combinarse con
+ * Specification.allOf sin generar condiciones vacías en el SQL.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Búsqueda parcial por nombre, sin distinguir mayúsculas: cada palabra debe aparecer en el nombre,
+     * en cualquier orden (como en el índice de búsqueda).
+     */
+    public static Specification<ProductEntity> nameContains(String search) {
+        return (root, query, cb) -> {
+            if (search == null || search.isBlank()) return null;
+            Predicate[] words = Arrays.stream(search.trim().toLowerCase(Locale.ROOT).split("\\s+"))
+                    .map(word -> cb.like(cb.lower(root.get("name")), "%" + escapeLike(word) + "%", '\\'))
+                    .toArray(Predicate[]::new);
+            return cb.and(words);
+        };
+    }
+
+    /**
+     * Restringe a un conjunto de ids (por ejemplo, los candidatos del índice de búsqueda).
+     */
+    public static Specification<ProductEntity> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    /**
+     * Filtra por nombre de categoría, sin distinguir mayúsculas ni espacios en los extremos.
+     */
+    public static Specification<ProductEntity> inCategory(String category) {
+        return (root, query, cb) -> {
+            if (category == null || category.isBlank()) return null;
+            return cb.equal(cb.lower(cb.trim(root.join("category").get("name"))), normalize(category));
+        };
+    }
+
+    public static Specification<ProductEntity> priceAtLeast(Double minPrice) {
+        return (root, query, cb) -> minPrice == null ? null : cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<ProductEntity> priceAtMost(Double maxPrice) {
+        return (root, query, cb) -> maxPrice == null ? null : cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    /**
+     * Productos con al menos una variante que cumpla talla y color a la vez.
+     * Se resuelve con un EXISTS sobre product_variant, que solo se agrega si llega alguno
+     * de los dos filtros y no duplica filas del producto (la paginación sigue siendo exacta).
+     */
+    public static Specification<ProductEntity> hasVariant(String size, String color) {
+        return (root, query, cb) -> {
+            if (isBlank(size) && isBlank(color)) return null;
+
+            Subquery<Long> variants = query.subquery(Long.class);
+            Root<ProductVariantEntity> variant = variants.from(ProductVariantEntity.class);
+            variants.select(variant.get("id"))
+                    .where(cb.equal(variant.get("product"), root), variantMatches(cb, variant, size, color));
+            return cb.exists(variants);
+        };
+    }
+
+    /**
+     * Condición de talla y color sobre una variante; null si no llega ninguno de los dos.
+     * Una talla inexistente no coincide con ninguna variante.
+     */
+    public static Predicate variantMatches(CriteriaBuilder cb, From<?, ProductVariantEntity> variant, String size, String color) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (!isBlank(size)) {
+            Size parsed = parseSize(size);
+            if (parsed == null) return cb.disjunction();
+            predicates.add(cb.equal(variant.get("size"), parsed));
+        }
+        if (!isBlank(color)) {
+            predicates.add(cb.equal(cb.lower(cb.trim(variant.get("colorName"))), normalize(color)));
+        }
+        return predicates.isEmpty() ? null : cb.and(predicates.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Condición keyset: filas posteriores a (value, id) en el orden indicado.
+     * Equivale a {@code attribute > value OR (attribute = value AND id > lastId)}, con los
+     * operadores invertidos para las direcciones descendentes. Con attribute null se ordena solo por id.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<ProductEntity> seekAfter(String attribute, boolean descending, Comparable value,
+                                                         Long lastId, boolean idDescending) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate afterId = idDescending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+            if (attribute == null) return afterId;
+            Path<Comparable> key = root.get(attribute);
+            Predicate afterKey = descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+            return cb.or(afterKey, cb.and(cb.equal(key, value), afterId));
+        };
+    }
+
+    /**
+     * Trae la categoría en la misma consulta para evitar un SELECT por producto al armar el DTO.
+     * No se aplica a la consulta de conteo de la paginación.
+     */
+    public static Specification<ProductEntity> fetchCategory() {
+        return (root, query, cb) -> {
+            if (query != null && !isCountQuery(query.getResultType())) {
+                root.fetch("category", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    private static boolean isCountQuery(Class<?> resultType) {
+        return Long.class.equals(resultType) || long.class.equals(resultType);
+    }
+
+    private static Size parseSize(String size) {
+        try {
+            return Size.valueOf(size.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Misma normalización que ProductAttributeIndex, para que el filtro en memoria y el SQL coincidan.
+     */
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
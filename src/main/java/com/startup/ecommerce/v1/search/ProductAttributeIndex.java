@@ -0,0 +1,155 @@
+package com.startup.ecommerce.v1.search;
+
+import com.startup.ecommerce.v1.entities.enums.Size;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de atributos en memoria: un BitSet de ids de producto por categoría, talla, color
+ * y combinación talla + color (una misma variante debe cumplir ambas, igual que en SQL).
+ * Un filtro de varios atributos se resuelve con AND de bitsets, sin consultar la base.
+ * Solo ve los cambios hechos a través de esta instancia, así que la búsqueda no lo usa para
+ * filtrar (eso lo hace siempre SQL) sino para descartar de entrada los filtros sin ningún producto.
+ * Los ids de producto son autoincrementales y densos, así que los bitsets ocupan poco
+ * (100.000 productos ≈ 12 KB por valor).
+ * Categoría y color se comparan en minúsculas y sin espacios en los extremos, como los filtros SQL.
+ */
+@Component
+public class ProductAttributeIndex {
+
+    public record Variant(Size size, String colorName) {
+    }
+
+    private final Map<String, BitSet> bitmaps = new HashMap<>();
+    private final Map<Long, Set<String>> keysByProduct = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * Agrega o reemplaza los atributos de un producto.
+     */
+    public void index(Long productId, String category, Collection<Variant> variants) {
+        Set<String> keys = new HashSet<>();
+        if (category != null) keys.add(categoryKey(category));
+        for (Variant variant : variants) {
+            keys.add(sizeKey(variant.size()));
+            keys.add(colorKey(variant.colorName()));
+            keys.add(variantKey(variant.size(), variant.colorName()));
+        }
+        int bit = toBit(productId);
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+            keysByProduct.put(productId, keys);
+            keys.forEach(key -> bitmaps.computeIfAbsent(key, k -> new BitSet()).set(bit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Productos que cumplen todos los filtros indicados (los vacíos se ignoran).
+     * Devuelve null si no hay filtros de atributos o el índice todavía no está cargado,
+     * y un BitSet vacío si la talla no existe o nada coincide.
+     */
+    public BitSet match(String category, String size, String color) {
+        boolean byCategory = notBlank(category), bySize = notBlank(size), byColor = notBlank(color);
+        if (!ready || (!byCategory && !bySize && !byColor)) return null;
+
+        Size parsedSize = null;
+        if (bySize) {
+            try {
+                parsedSize = Size.valueOf(size.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return new BitSet();
+            }
+        }
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            if (byCategory) result = and(result, categoryKey(category));
+            if (bySize && byColor) result = and(result, variantKey(parsedSize, color));
+            else if (bySize) result = and(result, sizeKey(parsedSize));
+            else result = byColor ? and(result, colorKey(color)) : result;
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    private BitSet and(BitSet current, String key) {
+        BitSet bitmap = bitmaps.get(key);
+        if (bitmap == null) return new BitSet();
+        if (current == null) return (BitSet) bitmap.clone(); // copia: el resultado sale fuera del lock
+        current.and(bitmap);
+        return current;
+    }
+
+    private void removeUnlocked(Long productId) {
+        Set<String> previous = keysByProduct.remove(productId);
+        if (previous == null) return;
+        int bit = toBit(productId);
+        for (String key : previous) {
+            BitSet bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.clear(bit);
+                if (bitmap.isEmpty()) bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static int toBit(Long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    private static String categoryKey(String category) {
+        return "category:" + normalize(category);
+    }
+
+    private static String sizeKey(Size size) {
+        return "size:" + size.name();
+    }
+
+    private static String colorKey(String color) {
+        return "color:" + normalize(color);
+    }
+
+    private static String variantKey(Size size, String color) {
+        return "variant:" + size.name() + ":" + normalize(color);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean notBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+}
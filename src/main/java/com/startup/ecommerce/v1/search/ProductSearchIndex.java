@@ -0,0 +1,158 @@
+package com.startup.ecommerce.v1.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre nombre, categoría, colores de las variantes y SKU.
+ * Cada término apunta a los productos que lo contienen con el peso del campo donde aparece
+ * (nombre > SKU > categoría > color). Los términos están ordenados, así cada palabra de la
+ * consulta se resuelve también como prefijo ("rem" encuentra "remera") con un rango del mapa.
+ * Todas las palabras de la consulta deben aparecer en el producto; el puntaje es la suma de
+ * los pesos, y un prefijo vale la mitad que la palabra completa.
+ */
+@Component
+public class ProductSearchIndex {
+
+    static final float NAME_WEIGHT = 4f;
+    static final float SKU_WEIGHT = 3f;
+    static final float CATEGORY_WEIGHT = 2f;
+    static final float COLOR_WEIGHT = 1f;
+    static final float PREFIX_FACTOR = 0.5f;
+    /** Palabras más cortas solo se buscan completas, para no recorrer medio índice por una letra */
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * Agrega o reemplaza un producto.
+     */
+    public void index(Long productId, String name, String category, Collection<String> colors, Collection<String> skus) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, name, NAME_WEIGHT);
+        addTerms(terms, category, CATEGORY_WEIGHT);
+        colors.forEach(color -> addTerms(terms, color, COLOR_WEIGHT));
+        skus.forEach(sku -> {
+            addTerms(terms, sku, SKU_WEIGHT);
+            terms.merge(SearchText.normalize(sku).replace(" ", ""), SKU_WEIGHT, Math::max); // SKU completo sin separadores
+        });
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+            documents.put(productId, terms);
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(productId, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de todos los productos que contienen todas las palabras de la consulta, de mayor a menor
+     * puntaje (a igual puntaje, por id).
+     */
+    public List<Long> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Como {@link #search(String)}, pero devuelve a lo sumo {@code limit} resultados.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = SearchText.tokenize(query);
+        if (tokens.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Long, Float> tokenMatches = tokenScores;
+                    scores.keySet().retainAll(tokenMatches.keySet());
+                    scores.replaceAll((id, score) -> score + tokenMatches.get(id));
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mejor peso de cada producto para una palabra: completa, o como prefijo de otra.
+     */
+    private Map<Long, Float> scoreToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        Map<Long, Float> exact = postings.get(token);
+        if (exact != null) scores.putAll(exact);
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            for (Map<Long, Float> matches : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                matches.forEach((id, weight) -> scores.merge(id, weight * PREFIX_FACTOR, Math::max));
+            }
+        }
+        return scores;
+    }
+
+    private void removeUnlocked(Long productId) {
+        Map<String, Float> previous = documents.remove(productId);
+        if (previous == null) return;
+        for (String term : previous.keySet()) {
+            Map<Long, Float> matches = postings.get(term);
+            if (matches != null) {
+                matches.remove(productId);
+                if (matches.isEmpty()) postings.remove(term);
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : SearchText.tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.startup.ecommerce.v1.search;
+
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.events.ProductCatalogChangedEvent;
+import com.startup.ecommerce.v1.repositories.OrderItemRepository;
+import com.startup.ecommerce.v1.repositories.ProductRepository;
+import com.startup.ecommerce.v1.repositories.ProductVariantRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene ProductSearchIndex, ProductSuggestIndex y ProductAttributeIndex al día con la base.
+ * Al arrancar carga el catálogo completo en segundo plano (mientras tanto la búsqueda usa SQL)
+ * y después reindexa cada producto que cambia, al confirmarse la transacción.
+ * La popularidad del autocompletado (unidades vendidas) se calcula en esa carga inicial
+ * y se recalcula cada app.search.popularity-refresh.
+ * Los productos que cambian durante la carga se vuelven a leer después de confirmarla, cada uno
+ * en una transacción nueva: dentro de la transacción de la carga (REPEATABLE READ) se leería la
+ * misma versión que se quiere reemplazar.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexer {
+
+    private final ProductSearchIndex index;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductAttributeIndex attributeIndex;
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Productos modificados mientras corre la carga inicial; se vuelven a leer al terminar */
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    // Las transacciones no son readOnly a propósito: los índices se arman desde el primario,
+    // justo después del commit, cuando una réplica todavía puede no tener el cambio
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding = true;
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(tx -> load());
+            replayChangedDuringRebuild();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo construir el índice de búsqueda; se sigue buscando con SQL", e);
+            changedDuringRebuild.clear();
+            return;
+        } finally {
+            rebuilding = false;
+        }
+        index.markReady();
+        attributeIndex.markReady();
+        log.info("Índices de búsqueda y autocompletado listos: {} productos", index.size());
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        if (rebuilding) changedDuringRebuild.add(event.productId());
+        reindex(event.productId());
+    }
+
+    private void load() {
+        Map<Long, String> names = new HashMap<>();
+        try (Stream<ProductEntity> products = productRepository.streamAllForExport()) {
+            Iterator<ProductEntity> it = products.iterator();
+            List<ProductEntity> chunk = new ArrayList<>(ProductRepository.EXPORT_FETCH_SIZE);
+            while (it.hasNext()) {
+                ProductEntity product = it.next();
+                chunk.add(product);
+                names.put(product.getId(), product.getName());
+                if (chunk.size() == ProductRepository.EXPORT_FETCH_SIZE || !it.hasNext()) {
+                    indexChunk(chunk);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        suggestIndex.load(names, unitsSold());
+    }
+
+    // Las ventas pueden leerse de una réplica: unos segundos de atraso no cambian el ranking
+    @Scheduled(fixedDelayString = "${app.search.popularity-refresh:PT10M}", initialDelayString = "${app.search.popularity-refresh:PT10M}")
+    @Transactional(readOnly = true)
+    public void refreshPopularity() {
+        if (!suggestIndex.isReady()) return;
+        suggestIndex.refreshPopularity(unitsSold());
+    }
+
+    private Map<Long, Long> unitsSold() {
+        return orderItemRepository.sumUnitsSoldByProduct().stream()
+                .collect(Collectors.toMap(OrderItemRepository.ProductUnitsSold::getProductId, OrderItemRepository.ProductUnitsSold::getUnits));
+    }
+
+    /**
+     * La carga pudo pisar con datos viejos lo que indexó onCatalogChanged mientras tanto (incluidos los
+     * nombres del autocompletado), así que esos productos se releen cuando la carga ya terminó.
+     * Se repite hasta que no quedan cambios pendientes.
+     */
+    private void replayChangedDuringRebuild() {
+        TransactionTemplate fresh = new TransactionTemplate(transactionManager);
+        fresh.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        while (!changedDuringRebuild.isEmpty()) {
+            for (Long productId : List.copyOf(changedDuringRebuild)) {
+                changedDuringRebuild.remove(productId);
+                fresh.executeWithoutResult(tx -> reindex(productId));
+            }
+        }
+    }
+
+    private void reindex(Long productId) {
+        productRepository.findById(productId).ifPresentOrElse(
+                product -> {
+                    index(product, product.getVariants() != null ? product.getVariants() : Set.of());
+                    suggestIndex.update(productId, product.getName());
+                },
+                () -> {
+                    index.remove(productId);
+                    suggestIndex.remove(productId);
+                    attributeIndex.remove(productId);
+                });
+    }
+
+    private void indexChunk(List<ProductEntity> chunk) {
+        Map<Long, List<ProductVariantEntity>> variantsByProduct = productVariantRepository
+                .findByProductIdIn(chunk.stream().map(ProductEntity::getId).toList()).stream()
+                .collect(Collectors.groupingBy(v -> v.getProduct().getId()));
+        chunk.forEach(p -> index(p, variantsByProduct.getOrDefault(p.getId(), List.of())));
+    }
+
+    private void index(ProductEntity product, Collection<ProductVariantEntity> variants) {
+        String category = product.getCategory() != null ? product.getCategory().getName() : null;
+        index.index(product.getId(),
+                product.getName(),
+                category,
+                variants.stream().map(ProductVariantEntity::getColorName).toList(),
+                variants.stream().map(ProductVariantEntity::getSku).toList());
+        attributeIndex.index(product.getId(), category,
+                variants.stream().map(v -> new ProductAttributeIndex.Variant(v.getSize(), v.getColorName())).toList());
+    }
+}
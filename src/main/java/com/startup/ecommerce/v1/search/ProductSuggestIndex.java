@@ -0,0 +1,247 @@
+package com.startup.ecommerce.v1.search;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de autocompletado: arreglo ordenado de claves normalizadas, una por cada palabra
+ * del nombre en adelante ("buzo azul", "azul"), de modo que se sugiere también por palabras
+ * intermedias. Un prefijo se resuelve con búsqueda binaria como un rango contiguo de claves, y de
+ * ese rango se extraen los k productos más populares (unidades vendidas) con un árbol de segmentos
+ * que guarda la mejor entrada de cada tramo: cada sugerencia cuesta O(log n) sin importar cuántas
+ * claves abarque el prefijo, así que el ranking es siempre sobre todo el rango.
+ * La estructura es inmutable: cada cambio arma una copia nueva y la publica de una vez,
+ * así las consultas nunca esperan un lock. Como la copia cuesta lo mismo para uno que para
+ * muchos productos, los cambios se acumulan y se aplican juntos cada app.search.suggest-refresh.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    /** Máximo de sugerencias por consulta */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    public record Suggestion(Long productId, String name) {
+    }
+
+    private record Entry(String key, Long productId, String name, long popularity) {
+    }
+
+    /**
+     * @param best árbol de segmentos sobre entries: best[1] es la posición de la mejor entrada de todo el arreglo,
+     *             y los hijos del nodo i son 2i y 2i+1; las hojas (best[n + i] = i) son las entradas
+     */
+    private record Snapshot(Entry[] entries, int[] best) {
+    }
+
+    /** Tramo entries[start, end) pendiente de explorar y la posición de su mejor entrada */
+    private record Range(int start, int end, int best) {
+    }
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing(Entry::key).thenComparing(Entry::productId);
+    // Ascendente: la mejor entrada (más ventas y, a igualdad, primera en orden alfabético) es la mayor
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::popularity)
+            .thenComparing(Entry::name, Comparator.reverseOrder());
+
+    private volatile Snapshot snapshot = new Snapshot(new Entry[0], new int[0]);
+    private volatile Map<Long, Long> popularity = Map.of();
+    private volatile boolean ready;
+    /** Cambios pendientes por producto: el nombre nuevo, o vacío si se quitó */
+    private final Map<Long, Optional<String>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Reemplaza el índice completo.
+     * @param names nombre de cada producto por id
+     * @param unitsSold unidades vendidas por id (los productos sin ventas no aparecen)
+     */
+    public synchronized void load(Map<Long, String> names, Map<Long, Long> unitsSold) {
+        Map<Long, Long> sold = Map.copyOf(unitsSold);
+        List<Entry> all = new ArrayList<>();
+        names.forEach((id, name) -> all.addAll(entriesFor(id, name, sold.getOrDefault(id, 0L))));
+        Entry[] sorted = all.toArray(Entry[]::new);
+        Arrays.sort(sorted, BY_KEY);
+        popularity = sold;
+        publish(sorted);
+        ready = true;
+    }
+
+    /**
+     * Agrega o reemplaza un producto (null como nombre lo quita). Se ve en las sugerencias
+     * cuando se aplican los cambios pendientes.
+     */
+    public void update(Long productId, String name) {
+        pending.put(productId, Optional.ofNullable(name));
+    }
+
+    public void remove(Long productId) {
+        update(productId, null);
+    }
+
+    /**
+     * Aplica de una vez todos los cambios acumulados: una sola copia del índice por tanda.
+     */
+    @Scheduled(fixedDelayString = "${app.search.suggest-refresh:PT5S}")
+    public synchronized void applyPending() {
+        if (pending.isEmpty()) return;
+        Map<Long, Optional<String>> batch = new HashMap<>();
+        for (Long productId : List.copyOf(pending.keySet())) {
+            Optional<String> name = pending.remove(productId);
+            if (name != null) batch.put(productId, name);
+        }
+        Map<Long, Long> sold = popularity;
+        List<Entry> added = new ArrayList<>();
+        batch.forEach((id, name) -> name.ifPresent(n -> added.addAll(entriesFor(id, n, sold.getOrDefault(id, 0L)))));
+        added.sort(BY_KEY);
+
+        Entry[] current = snapshot.entries();
+        Entry[] merged = new Entry[current.length + added.size()];
+        int i = 0, j = 0, n = 0;
+        while (i < current.length || j < added.size()) {
+            if (i < current.length && batch.containsKey(current[i].productId())) {
+                i++; // versión anterior del producto
+            } else if (j == added.size() || (i < current.length && BY_KEY.compare(current[i], added.get(j)) <= 0)) {
+                merged[n++] = current[i++];
+            } else {
+                merged[n++] = added.get(j++);
+            }
+        }
+        publish(Arrays.copyOf(merged, n));
+    }
+
+    /**
+     * Actualiza las unidades vendidas de todos los productos (el orden de las claves no cambia).
+     */
+    public synchronized void refreshPopularity(Map<Long, Long> unitsSold) {
+        Map<Long, Long> sold = Map.copyOf(unitsSold);
+        Entry[] current = snapshot.entries();
+        Entry[] updated = new Entry[current.length];
+        for (int i = 0; i < current.length; i++) {
+            Entry e = current[i];
+            updated[i] = new Entry(e.key(), e.productId(), e.name(), sold.getOrDefault(e.productId(), 0L));
+        }
+        popularity = sold;
+        publish(updated);
+    }
+
+    /**
+     * Hasta {@code limit} productos cuyo nombre tiene alguna palabra que empieza con el prefijo,
+     * de más a menos vendidos (a igualdad, alfabético).
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = SearchText.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) return List.of();
+
+        Snapshot current = snapshot;
+        Entry[] entries = current.entries();
+        int start = lowerBound(entries, normalized);
+        int end = upperBound(entries, start, normalized);
+        return top(current, start, end, limit).stream().map(e -> new Suggestion(e.productId(), e.name())).toList();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void publish(Entry[] entries) {
+        int n = entries.length;
+        int[] best = new int[2 * n];
+        for (int i = 0; i < n; i++) best[n + i] = i;
+        for (int i = n - 1; i > 0; i--) best[i] = better(entries, best[2 * i], best[2 * i + 1]);
+        snapshot = new Snapshot(entries, best);
+    }
+
+    /**
+     * Los {@code limit} productos más populares de entries[start, end), de mejor a peor.
+     * Saca la mejor entrada del tramo y sigue por las dos mitades que quedan a cada lado,
+     * siempre por el tramo cuya mejor entrada es la mejor de todas.
+     */
+    private static List<Entry> top(Snapshot snapshot, int start, int end, int limit) {
+        Entry[] entries = snapshot.entries();
+        PriorityQueue<Range> ranges = new PriorityQueue<>((a, b) -> compare(entries, b.best(), a.best()));
+        offer(ranges, snapshot, start, end);
+        List<Entry> result = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        while (result.size() < limit && !ranges.isEmpty()) {
+            Range range = ranges.poll();
+            Entry entry = entries[range.best()];
+            if (seen.add(entry.productId())) result.add(entry); // el mismo producto por otra palabra cuenta una vez
+            offer(ranges, snapshot, range.start(), range.best());
+            offer(ranges, snapshot, range.best() + 1, range.end());
+        }
+        return result;
+    }
+
+    private static void offer(PriorityQueue<Range> ranges, Snapshot snapshot, int start, int end) {
+        if (start < end) ranges.offer(new Range(start, end, best(snapshot, start, end)));
+    }
+
+    /**
+     * Posición de la mejor entrada de entries[start, end), en O(log n).
+     */
+    private static int best(Snapshot snapshot, int start, int end) {
+        Entry[] entries = snapshot.entries();
+        int[] best = snapshot.best();
+        int n = entries.length;
+        int result = -1;
+        for (int lo = start + n, hi = end + n; lo < hi; lo >>>= 1, hi >>>= 1) {
+            if ((lo & 1) == 1) result = better(entries, result, best[lo++]);
+            if ((hi & 1) == 1) result = better(entries, result, best[--hi]);
+        }
+        return result;
+    }
+
+    private static int better(Entry[] entries, int a, int b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        return compare(entries, a, b) >= 0 ? a : b;
+    }
+
+    /** Orden total entre posiciones según RANKING; a igualdad, la primera es la mejor. */
+    private static int compare(Entry[] entries, int a, int b) {
+        int byRanking = RANKING.compare(entries[a], entries[b]);
+        return byRanking != 0 ? byRanking : Integer.compare(b, a);
+    }
+
+    private static int lowerBound(Entry[] entries, String key) {
+        int lo = 0, hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries[mid].key().compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Primera posición desde {@code from} cuya clave ya no empieza con el prefijo.
+     */
+    private static int upperBound(Entry[] entries, int from, String prefix) {
+        int lo = from, hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries[mid].key().startsWith(prefix) || entries[mid].key().compareTo(prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static List<Entry> entriesFor(Long productId, String name, long popularity) {
+        List<String> words = SearchText.tokenize(name);
+        List<Entry> result = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            result.add(new Entry(String.join(" ", words.subList(i, words.size())), productId, name, popularity));
+        }
+        return result;
+    }
+}
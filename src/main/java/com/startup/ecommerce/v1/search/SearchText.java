@@ -0,0 +1,37 @@
+package com.startup.ecommerce.v1.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto común a los índices de búsqueda:
+ * minúsculas, sin acentos y separado en palabras alfanuméricas.
+ */
+public final class SearchText {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private SearchText() {
+    }
+
+    /** "Camión  Azul-Ñandú" -> "camion azul nandu" */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split(" ")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
@@ -1,8 +1,11 @@
 package com.startup.ecommerce.v1.security;
 
+import com.startup.ecommerce.v1.config.CacheConfig;
 import com.startup.ecommerce.v1.entities.UserEntity;
+import com.startup.ecommerce.v1.entities.enums.Role;
 import com.startup.ecommerce.v1.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,12 +23,15 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    // Cacheado por email; UserDetailsCacheListener invalida la entrada cuando el usuario cambia.
+    // Sin readOnly: se lee del primario para no cachear un usuario desactualizado desde una réplica.
     @Override
-    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#email")
+    @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         UserEntity user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
-        return new CustomUserDetails(user);
+        return UserPrincipal.create(user);
     }
 
     /**
@@ -36,34 +42,46 @@ public class CustomUserDetailsService implements UserDetailsService {
         private final Long id;
         private final String email;
         private final String password;
+        private final Role role;
         private final Collection<? extends GrantedAuthority> authorities;
         private final boolean enabled;
 
-        public UserPrincipal(Long id, String email, String password,
+        public UserPrincipal(Long id, String email, String password, Role role,
                              Collection<? extends GrantedAuthority> authorities,
                              boolean enabled) {
             this.id = id;
             this.email = email;
             this.password = password;
+            this.role = role;
             this.authorities = authorities;
             this.enabled = enabled;
         }
 
         public static UserPrincipal create(UserEntity user) {
-            Collection<GrantedAuthority> authorities = Collections.singletonList(
-                    new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-            );
             return new UserPrincipal(
                     user.getId(),
                     user.getEmail(),
                     user.getPassword(),
-                    authorities,
+                    user.getRole(),
+                    authoritiesFor(user.getRole()),
                     user.isEnabled()
             );
         }
 
+        /**
+         * Principal armado a partir de los claims firmados del JWT (sin contraseña ni acceso a la base).
+         */
+        public static UserPrincipal fromClaims(Long id, String email, Role role) {
+            return new UserPrincipal(id, email, null, role, authoritiesFor(role), true);
+        }
+
+        private static Collection<GrantedAuthority> authoritiesFor(Role role) {
+            return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        }
+
         public Long getId() { return id; }
         public String getEmail() { return email; }
+        public Role getRole() { return role; }
 
         @Override
         public String getUsername() { return email; }
@@ -1,10 +1,14 @@
 package com.startup.ecommerce.v1.security;
 
+import com.startup.ecommerce.v1.entities.enums.Role;
+import com.startup.ecommerce.v1.security.CustomUserDetailsService.UserPrincipal;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +17,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -20,28 +25,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
     @Autowired
     private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private RevokedUserCache revokedUsers;
+    // Si está activo, el principal se arma con los claims firmados (id, email, rol) sin consultar la base
+    @Value("${app.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // El token se verifica una sola vez; los claims obtenidos ya están validados
+            Optional<Claims> claims = jwtUtil.parseClaims(authHeader.substring(7));
+            String username = claims.map(Claims::getSubject).orElse(null);
+            if (username != null && !revokedUsers.isRevoked(username, claims.get().get(JwtUtil.CLAIM_ROLE, String.class))) {
+                UserDetails userDetails = resolvePrincipal(claims.get());
+                if (userDetails.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            }
         }
+        filterChain.doFilter(request, response);
+    }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal) {
+            Long userId = claims.get(JwtUtil.CLAIM_USER_ID, Long.class);
+            String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+            // Tokens emitidos antes de incluir el id del usuario se resuelven contra la base
+            if (userId != null && role != null) {
+                return UserPrincipal.fromClaims(userId, claims.getSubject(), Role.valueOf(role));
             }
         }
-        filterChain.doFilter(request, response);
+        return userDetailsService.loadUserByUsername(claims.getSubject());
     }
 }
@@ -1,52 +1,102 @@
 package com.startup.ecommerce.v1.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
     private final Key key;
     private final long jwtExpirationMs;
+    // El parser es inmutable y thread-safe: se construye una sola vez
+    private final JwtParser parser;
+    // Claims de tokens ya verificados, por hash del token; cada entrada vence junto con el token
+    private final Cache<String, Claims> verifiedTokens;
 
     public JwtUtil(
             @Value("${JWT_SECRET}") String secret,
-            @Value("${JWT_EXPIRATION}") long jwtExpirationMs
+            @Value("${JWT_EXPIRATION}") long jwtExpirationMs,
+            @Value("${app.jwt.token-cache-size:10000}") long tokenCacheSize
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.jwtExpirationMs = jwtExpirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_ID = "uid";
+
     public String generateToken(String username, String role) {
+        return generateToken(null, username, role);
+    }
+
+    /**
+     * Genera el token incluyendo el id del usuario, lo que permite armar el principal
+     * directamente desde los claims sin consultar la base de datos.
+     */
+    public String generateToken(Long userId, String username, String role) {
         return Jwts.builder()
                 .setSubject(username)
-                .claim("role", role)
+                .claim(CLAIM_ROLE, role)
+                .claim(CLAIM_USER_ID, userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifica el token una sola vez y devuelve sus claims, o vacío si es inválido o expiró.
+     * Un token ya verificado se resuelve desde memoria sin repetir el HMAC ni el parseo.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String cacheKey = hash(token);
+        Claims cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(cacheKey, claims);
+            }
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
+    public boolean validateToken(String token) {
+        return parseClaims(token).isPresent();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        return extractAllClaims(token).get(CLAIM_ROLE, String.class);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -55,6 +105,37 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return parseClaims(token).orElseThrow(() -> new JwtException("Token inválido o expirado"));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Cada token verificado permanece en caché solo hasta su fecha de expiración.
+     */
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,148 @@
+package com.startup.ecommerce.v1.security;
+
+import com.startup.ecommerce.v1.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hash y verificación de contraseñas (BCrypt) en un pool propio y acotado, para que un pico
+ * de logins no consuma la CPU de los hilos que atienden el resto de la API.
+ * Con la cola llena, o si el pedido espera más de max-wait, se responde 503 sin calcular nada.
+ * <p>
+ * El costo de BCrypt se calibra al arrancar: el mayor entre min-strength y strength cuya
+ * verificación entra en verify-budget en esta máquina. Los hashes existentes se siguen
+ * verificando con el costo con el que fueron generados.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final String BUSY_MESSAGE = "Demasiadas solicitudes de autenticación, reintente en unos segundos";
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    public PasswordHasher(
+            MeterRegistry registry,
+            @Value("${app.auth.hashing.threads:0}") int threads,
+            @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.auth.hashing.max-wait:2s}") Duration maxWait,
+            @Value("${app.auth.hashing.strength:12}") int maxStrength,
+            @Value("${app.auth.hashing.min-strength:10}") int minStrength,
+            @Value("${app.auth.hashing.verify-budget:100ms}") Duration verifyBudget
+    ) {
+        int strength = calibrateStrength(minStrength, maxStrength, verifyBudget);
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.maxWait = maxWait;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("auth-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.password.hashing").tag("operation", "encode").register(registry);
+        this.verifyTimer = Timer.builder("auth.password.hashing").tag("operation", "verify").register(registry);
+        this.queueFull = Counter.builder("auth.password.rejected").tag("reason", "queue_full").register(registry);
+        this.timedOut = Counter.builder("auth.password.rejected").tag("reason", "timeout").register(registry);
+        Gauge.builder("auth.password.bcrypt.strength", encoder, e -> strength).register(registry);
+        new ExecutorServiceMetrics(executor, "auth.password.hashing", Tags.empty()).bindTo(registry);
+
+        log.info("BCrypt con costo {} ({} hilos, cola de {})", strength, poolSize, queueCapacity);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> verifyTimer.record(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Encoder con el costo calibrado, para quien necesite un {@link PasswordEncoder}.
+     * Llamarlo directamente no pasa por el pool: en los pedidos HTTP usar encode/matches.
+     */
+    public PasswordEncoder encoder() {
+        return encoder;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            queueFull.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE, e);
+        }
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(BUSY_MESSAGE, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Error procesando la contraseña", e.getCause());
+        }
+    }
+
+    /**
+     * Cada punto de costo duplica el tiempo de BCrypt: se mide una verificación con el costo
+     * mínimo (después de calentar el JIT) y se sube mientras el tiempo estimado entre en el presupuesto.
+     */
+    static int calibrateStrength(int minStrength, int maxStrength, Duration verifyBudget) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        String hash = probe.encode("calibracion");
+        probe.matches("calibracion", hash);
+
+        long start = System.nanoTime();
+        probe.matches("calibracion", hash);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        int strength = minStrength;
+        while (strength < maxStrength && elapsed * 2 <= verifyBudget.toNanos()) {
+            strength++;
+            elapsed *= 2;
+        }
+        if (elapsed > verifyBudget.toNanos()) {
+            log.warn("Una verificación con el costo mínimo ({}) tarda {} ms, por encima del presupuesto de {} ms",
+                    minStrength, elapsed / 1_000_000, verifyBudget.toMillis());
+        }
+        return strength;
+    }
+}
@@ -0,0 +1,58 @@
+package com.startup.ecommerce.v1.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.startup.ecommerce.v1.entities.enums.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Lista de usuarios revocados cuyos tokens ya emitidos no deben aceptarse: usuarios deshabilitados
+ * o eliminados, y tokens emitidos con un rol que el usuario ya no tiene (por ejemplo, un ADMIN degradado).
+ * Cuando el principal se arma desde los claims del JWT no se consulta la base, así que esos cambios
+ * se controlan aquí. Cada entrada dura lo mismo que un token: pasado ese tiempo ya no puede quedar
+ * ningún token válido emitido antes del cambio. Por eso no tiene tope de tamaño: una entrada
+ * descartada antes de tiempo volvería a habilitar esos tokens.
+ * La lista vive en la memoria de cada instancia: sólo la instancia que procesó el cambio la conoce
+ * y se pierde al reiniciar. Con varias instancias (o tras un reinicio) el control efectivo es el
+ * que hace la carga del usuario desde la base, es decir, con app.jwt.stateless-principal en false.
+ */
+@Component
+public class RevokedUserCache {
+
+    /** Estado vigente del usuario: deshabilitado, o el único rol con el que se aceptan sus tokens. */
+    private record Revocation(boolean disabled, Role role) {
+    }
+
+    private final Cache<String, Revocation> revoked;
+
+    public RevokedUserCache(@Value("${JWT_EXPIRATION}") long jwtExpirationMs) {
+        this.revoked = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtExpirationMs))
+                .build();
+    }
+
+    /** Usuario eliminado: se rechazan todos sus tokens. */
+    public void revoke(String email) {
+        revoked.put(normalize(email), new Revocation(true, null));
+    }
+
+    /**
+     * Usuario modificado: si está deshabilitado se rechazan sus tokens; si no, sólo los emitidos con otro rol.
+     */
+    public void update(String email, boolean enabled, Role role) {
+        revoked.put(normalize(email), new Revocation(!enabled, role));
+    }
+
+    public boolean isRevoked(String email, String tokenRole) {
+        Revocation revocation = revoked.getIfPresent(normalize(email));
+        if (revocation == null) return false;
+        return revocation.disabled() || (revocation.role() != null && !revocation.role().name().equals(tokenRole));
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,52 @@
+package com.startup.ecommerce.v1.security;
+
+import com.startup.ecommerce.v1.config.CacheConfig;
+import com.startup.ecommerce.v1.entities.UserEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Listener JPA de UserEntity que mantiene coherente la caché de usuarios autenticados.
+ * Cualquier alta (registro), modificación o baja de un usuario invalida su entrada y actualiza la
+ * lista de revocados: un usuario deshabilitado o eliminado pierde todos sus tokens, y uno habilitado
+ * conserva sólo los emitidos con su rol actual (un cambio de rol invalida los anteriores).
+ * Al volver a habilitarlo, sus tokens con el rol vigente vuelven a aceptarse.
+ * Hibernate lo instancia a través de Spring, por eso recibe sus dependencias por constructor.
+ */
+public class UserDetailsCacheListener {
+
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final ObjectProvider<RevokedUserCache> revokedUsers;
+
+    public UserDetailsCacheListener(ObjectProvider<CacheManager> cacheManager,
+                                    ObjectProvider<RevokedUserCache> revokedUsers) {
+        this.cacheManager = cacheManager;
+        this.revokedUsers = revokedUsers;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(UserEntity user) {
+        evict(user.getEmail());
+        revokedUsers.ifAvailable(r -> r.update(user.getEmail(), user.isEnabled(), user.getRole()));
+    }
+
+    @PostRemove
+    public void onRemove(UserEntity user) {
+        evict(user.getEmail());
+        revokedUsers.ifAvailable(r -> r.revoke(user.getEmail()));
+    }
+
+    private void evict(String email) {
+        cacheManager.ifAvailable(manager -> {
+            Cache cache = manager.getCache(CacheConfig.USERS);
+            if (cache != null) {
+                cache.evict(email);
+            }
+        });
+    }
+}
@@ -1,10 +1,11 @@
 package com.startup.ecommerce.v1.services;
 
 import com.startup.ecommerce.v1.dto.CreateOrderDto;
+import com.startup.ecommerce.v1.dto.CursorPageDto;
 import com.startup.ecommerce.v1.dto.OrderDto;
+import com.startup.ecommerce.v1.dto.OrderSummaryDto;
 import com.startup.ecommerce.v1.entities.enums.OrderStatus;
-
-import java.util.List;
+import org.springframework.data.domain.Page;
 
 public interface OrderService {
     
@@ -12,7 +13,9 @@ public interface OrderService {
 
     OrderDto getOrderById(Long orderId);
 
-    List<OrderDto> getOrdersByUserId(Long userId);
+    Page<OrderSummaryDto> getOrderSummariesByUserId(Long userId, int page, int size);
+
+    CursorPageDto<OrderSummaryDto> scrollOrderSummariesByUserId(Long userId, String cursor, int size);
 
     OrderDto updateOrderStatus(Long orderId, OrderStatus status);
 
@@ -0,0 +1,30 @@
+package com.startup.ecommerce.v1.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+
+    enum Format { NDJSON, CSV }
+
+    /**
+     * Lugar reservado para una exportación; se libera al cerrarlo.
+     */
+    interface Slot extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Reserva uno de los lugares para exportar (app.export.max-concurrent). Cada exportación ocupa
+     * una conexión de la base mientras dura, así que sin lugares libres se rechaza de inmediato
+     * con ServiceBusyException (503) en lugar de quitarle conexiones al resto de la API.
+     */
+    Slot reserveSlot();
+
+    /**
+     * Escribe el catálogo completo (con stock y variantes) en el formato indicado.
+     * Los productos se leen y escriben por tandas, sin cargar el catálogo entero en memoria.
+     */
+    void exportCatalog(Format format, OutputStream out) throws IOException;
+}
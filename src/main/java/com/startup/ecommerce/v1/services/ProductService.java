@@ -1,8 +1,12 @@
 package com.startup.ecommerce.v1.services;
 
+import com.startup.ecommerce.v1.dto.CursorPageDto;
 import com.startup.ecommerce.v1.dto.ProductDto;
+import com.startup.ecommerce.v1.dto.ProductFacetsDto;
+import com.startup.ecommerce.v1.dto.ProductSuggestionDto;
 import com.startup.ecommerce.v1.dto.ProductVariantDto;
 import com.startup.ecommerce.v1.dto.CreateProductVariantDto;
+import org.springframework.data.domain.Page;
 import java.util.List;
 
 public interface ProductService {
@@ -18,7 +22,7 @@ public interface ProductService {
     
     List<ProductDto> getFeaturedProducts();
     
-    List<ProductDto> searchProducts(
+    Page<ProductDto> searchProducts(
         String search,
         String category,
         String size,
@@ -30,6 +34,43 @@ public interface ProductService {
         int sizePage
     );
 
+    /**
+     * Mismos filtros que searchProducts pero con paginación por cursor (keyset sobre la columna
+     * de orden e id): cada página cuesta lo mismo sin importar la profundidad.
+     * El orden por relevancia no está disponible; sin sort se ordena por id.
+     */
+    CursorPageDto<ProductDto> scrollProducts(
+        String search,
+        String category,
+        String size,
+        String color,
+        Double minPrice,
+        Double maxPrice,
+        String sort,
+        String cursor,
+        int sizePage
+    );
+
+    /**
+     * Conteos por categoría, talla, color y rango de precio de todos los resultados
+     * de una búsqueda con los mismos filtros que searchProducts. Cada faceta se cuenta con
+     * todos los filtros menos el suyo.
+     */
+    ProductFacetsDto getSearchFacets(
+        String search,
+        String category,
+        String size,
+        String color,
+        Double minPrice,
+        Double maxPrice
+    );
+
+    /**
+     * Sugerencias de autocompletado para lo que se lleva escrito, sin consultar la base.
+     * Devuelve una lista vacía mientras el índice se está cargando.
+     */
+    List<ProductSuggestionDto> suggest(String prefix, int limit);
+
     // Variants
     ProductVariantDto addVariant(Long productId, CreateProductVariantDto dto);
     List<ProductVariantDto> listVariants(Long productId);
@@ -3,9 +3,18 @@ package com.startup.ecommerce.v1.services;
 import com.startup.ecommerce.v1.entities.ProductEntity;
 import com.startup.ecommerce.v1.entities.StockEntity;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface StockService {
     
     Integer getAvailableStock(Long productId);
+
+    /**
+     * Stock disponible de varios productos en una sola consulta.
+     * Los productos sin registro de stock no aparecen en el mapa.
+     */
+    Map<Long, Integer> getAvailableStock(Collection<Long> productIds);
     
     Integer getTotalStock(Long productId);
     
@@ -15,6 +24,13 @@ public interface StockService {
     
     void reserveStock(Long productId, Integer quantity);
     
+    /**
+     * Reserva varias líneas a la vez (productId -> cantidad) en una sola operación ordenada por producto.
+     * Es todo o nada: si alguna línea no alcanza lanza InsufficientStockException con el detalle
+     * de todas las líneas que fallaron y no se reserva ninguna.
+     */
+    void reserveAll(Map<Long, Integer> quantitiesByProduct);
+
     void releaseStock(Long productId, Integer quantity);
     
     void consumeStock(Long productId, Integer quantity);
@@ -27,6 +27,7 @@ public class CartServiceImpl implements CartService {
     private final ProductRepository productRepository;
     private final ProductVariantRepository productVariantRepository;
     private final StockService stockService;
+    private final ServiceMetrics metrics;
 
     @Override
     @Transactional
@@ -49,90 +50,98 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional
     public CartEntity addItem(Long userId, Long productId, Long variantId, Integer quantity) {
-        if (quantity == null || quantity <= 0) {
-            throw new IllegalArgumentException("La cantidad debe ser mayor a cero");
-        }
-        CartEntity cart = getOrCreateCart(userId);
-        ProductEntity product = productRepository.findById(productId).orElseThrow();
-        ProductVariantEntity variant = null;
-        if (variantId != null) {
-            variant = productVariantRepository.findById(variantId).orElseThrow();
-            if (!variant.getProduct().getId().equals(product.getId())) {
-                throw new IllegalArgumentException("La variante no pertenece al producto indicado");
+        return metrics.time(ServiceMetrics.CART, "add_item", () -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("La cantidad debe ser mayor a cero");
+            }
+            CartEntity cart = getOrCreateCart(userId);
+            ProductEntity product = productRepository.findById(productId).orElseThrow();
+            ProductVariantEntity variant = null;
+            if (variantId != null) {
+                variant = productVariantRepository.findById(variantId).orElseThrow();
+                if (!variant.getProduct().getId().equals(product.getId())) {
+                    throw new IllegalArgumentException("La variante no pertenece al producto indicado");
+                }
             }
-        }
 
-        // Reservar stock a nivel de producto
-        stockService.reserveStock(productId, quantity);
-
-        double unitPrice = product.getPrice();
-        CartItemEntity item = CartItemEntity.builder()
-                .cart(cart)
-                .product(product)
-                .variant(variant)
-                .quantity(quantity)
-                .unitPrice(unitPrice)
-                .totalPrice(unitPrice * quantity)
-                .build();
-        cart.addItem(item);
-        recalculateTotals(cart);
-        cartItemRepository.save(item);
-        return cartRepository.save(cart);
+            // Reservar stock a nivel de producto
+            stockService.reserveStock(productId, quantity);
+
+            double unitPrice = product.getPrice();
+            CartItemEntity item = CartItemEntity.builder()
+                    .cart(cart)
+                    .product(product)
+                    .variant(variant)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .totalPrice(unitPrice * quantity)
+                    .build();
+            cart.addItem(item);
+            recalculateTotals(cart);
+            cartItemRepository.save(item);
+            return cartRepository.save(cart);
+        });
     }
 
     @Override
     @Transactional
     public CartEntity updateItem(Long userId, Long cartItemId, Integer quantity) {
-        if (quantity == null || quantity <= 0) {
-            throw new IllegalArgumentException("La cantidad debe ser mayor a cero");
-        }
-        CartEntity cart = getOrCreateCart(userId);
-        CartItemEntity item = cartItemRepository.findById(cartItemId).orElseThrow();
-        if (!item.getCart().getId().equals(cart.getId())) {
-            throw new IllegalArgumentException("El item no pertenece al carrito del usuario");
-        }
+        return metrics.time(ServiceMetrics.CART, "update_item", () -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("La cantidad debe ser mayor a cero");
+            }
+            CartEntity cart = getOrCreateCart(userId);
+            CartItemEntity item = cartItemRepository.findById(cartItemId).orElseThrow();
+            if (!item.getCart().getId().equals(cart.getId())) {
+                throw new IllegalArgumentException("El item no pertenece al carrito del usuario");
+            }
 
-        int delta = quantity - item.getQuantity();
-        if (delta > 0) {
-            stockService.reserveStock(item.getProduct().getId(), delta);
-        } else if (delta < 0) {
-            stockService.releaseStock(item.getProduct().getId(), -delta);
-        }
+            int delta = quantity - item.getQuantity();
+            if (delta > 0) {
+                stockService.reserveStock(item.getProduct().getId(), delta);
+            } else if (delta < 0) {
+                stockService.releaseStock(item.getProduct().getId(), -delta);
+            }
 
-        item.setQuantity(quantity);
-        item.setTotalPrice(item.getUnitPrice() * quantity);
-        cartItemRepository.save(item);
-        recalculateTotals(cart);
-        return cartRepository.save(cart);
+            item.setQuantity(quantity);
+            item.setTotalPrice(item.getUnitPrice() * quantity);
+            cartItemRepository.save(item);
+            recalculateTotals(cart);
+            return cartRepository.save(cart);
+        });
     }
 
     @Override
     @Transactional
     public void removeItem(Long userId, Long cartItemId) {
-        CartEntity cart = getOrCreateCart(userId);
-        CartItemEntity item = cartItemRepository.findById(cartItemId).orElseThrow();
-        if (!item.getCart().getId().equals(cart.getId())) {
-            throw new IllegalArgumentException("El item no pertenece al carrito del usuario");
-        }
-        stockService.releaseStock(item.getProduct().getId(), item.getQuantity());
-        cart.removeItem(item);
-        cartItemRepository.delete(item);
-        recalculateTotals(cart);
-        cartRepository.save(cart);
+        metrics.time(ServiceMetrics.CART, "remove_item", () -> {
+            CartEntity cart = getOrCreateCart(userId);
+            CartItemEntity item = cartItemRepository.findById(cartItemId).orElseThrow();
+            if (!item.getCart().getId().equals(cart.getId())) {
+                throw new IllegalArgumentException("El item no pertenece al carrito del usuario");
+            }
+            stockService.releaseStock(item.getProduct().getId(), item.getQuantity());
+            cart.removeItem(item);
+            cartItemRepository.delete(item);
+            recalculateTotals(cart);
+            cartRepository.save(cart);
+        });
     }
 
     @Override
     @Transactional
     public void clearCart(Long userId) {
-        CartEntity cart = getOrCreateCart(userId);
-        if (cart.getItems() != null) {
-            for (CartItemEntity item : cart.getItems()) { // Bucle que recorre todos los items del carrito
-                stockService.releaseStock(item.getProduct().getId(), item.getQuantity()); // Liberar el stock del producto || Cantidad a liberar 
+        metrics.time(ServiceMetrics.CART, "clear", () -> {
+            CartEntity cart = getOrCreateCart(userId);
+            if (cart.getItems() != null) {
+                for (CartItemEntity item : cart.getItems()) { // Bucle que recorre todos los items del carrito
+                    stockService.releaseStock(item.getProduct().getId(), item.getQuantity()); // Liberar el stock del producto || Cantidad a liberar 
+                }
+                cart.getItems().clear(); // Elimina todos los items de la lista del carrito
             }
-            cart.getItems().clear(); // Elimina todos los items de la lista del carrito
-        }
-        cart.setTotalPrice(0.0);
-        cartRepository.save(cart);
+            cart.setTotalPrice(0.0);
+            cartRepository.save(cart);
+        });
     }
 
     @Override
@@ -0,0 +1,41 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.entities.CategoryEntity;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.entities.StockEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Listener JPA de las entidades del catálogo: cada alta, modificación (cambio de updatedAt)
+ * o baja incrementa las versiones que usan los ETag.
+ * Los UPDATE masivos de stock no pasan por aquí; StockServiceImpl avisa por su cuenta.
+ */
+public class CatalogVersionListener {
+
+    private final ObjectProvider<CatalogVersions> versions;
+
+    public CatalogVersionListener(ObjectProvider<CatalogVersions> versions) {
+        this.versions = versions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        versions.ifAvailable(v -> {
+            if (entity instanceof ProductEntity product) {
+                v.productChanged(product.getId());
+            } else if (entity instanceof ProductVariantEntity variant) {
+                v.productChanged(variant.getProduct().getId());
+            } else if (entity instanceof StockEntity stock) {
+                v.stockChanged(stock.getProduct().getId());
+            } else if (entity instanceof CategoryEntity category) {
+                v.categoryChanged(category.getId());
+            }
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.entities.ProductVersionEntity;
+import com.startup.ecommerce.v1.repositories.ProductVersionRepository;
+import com.startup.ecommerce.v1.repositories.ProductVersionRepository.CatalogVersion;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Versiones del catálogo, usadas para armar los ETag de ProductController y las claves de ProductCatalogCache.
+ * Se guardan en la tabla product_version, una fila por producto:
+ * - data_version: cambia con el producto, sus variantes o su categoría.
+ * - stock_version: cambia con su stock.
+ * El ETag del detalle sale de la fila del producto y el del listado, de la suma de todas las filas;
+ * como viven en la base, todas las instancias responden lo mismo y un cambio hecho a través de
+ * cualquiera de ellas cambia el ETag en todas. Por eso el Cache-Control es no-cache: el cliente
+ * guarda la respuesta pero la revalida siempre, y recibe 304 mientras no haya cambios.
+ * Los incrementos de una transacción se juntan y se escriben justo antes de confirmarla, ordenados
+ * por producto (como los bloqueos de stock del checkout), así que se confirman junto con los datos.
+ * Se escriben desde un proceso de Hibernate previo a la confirmación y no desde un beforeCommit de
+ * Spring: los listeners de CatalogVersionListener pueden dispararse recién en el flush de la confirmación.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogVersions {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache();
+
+    private final ProductVersionRepository versionRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Cambió el producto o alguna de sus variantes. */
+    public void productChanged(Long productId) {
+        change(pending -> pending.data.add(productId));
+    }
+
+    /** Cambió el stock del producto. */
+    public void stockChanged(Long productId) {
+        change(pending -> pending.stock.add(productId));
+    }
+
+    /** Cambió la categoría: se muestra dentro de cada uno de sus productos. */
+    public void categoryChanged(Long categoryId) {
+        change(pending -> pending.categories.add(categoryId));
+    }
+
+    /** ETag del listado completo de productos. */
+    public String catalogTag() {
+        CatalogVersion version = versionRepository.catalogVersion();
+        return "c-" + version.getData() + "-" + version.getStock();
+    }
+
+    /** Versión de los datos (sin stock) de todo el catálogo. */
+    public long catalogDataVersion() {
+        return versionRepository.catalogVersion().getData();
+    }
+
+    /** ETag del detalle de un producto y de sus variantes. */
+    public String productTag(Long productId) {
+        ProductVersionEntity version = version(productId);
+        return "p" + productId + "-" + version.getDataVersion() + "-" + version.getStockVersion();
+    }
+
+    /** Versión de los datos (sin stock) de un producto. */
+    public long dataVersion(Long productId) {
+        return version(productId).getDataVersion();
+    }
+
+    /** Cache-Control de las respuestas con estos ETag. */
+    public CacheControl cacheControl() {
+        return CACHE_CONTROL;
+    }
+
+    private ProductVersionEntity version(Long productId) {
+        return versionRepository.findById(productId).orElseGet(() -> new ProductVersionEntity(productId, 0L, 0L));
+    }
+
+    /**
+     * Anota el incremento en los pendientes de la transacción en curso; fuera de una transacción se aplica en el momento.
+     */
+    private void change(Consumer<Pending> change) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            Pending pending = new Pending();
+            change.accept(pending);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> apply(pending));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+            Pending registered = pending;
+            entityManager.unwrap(SessionImplementor.class).getActionQueue().registerProcess(session -> apply(registered));
+        }
+        change.accept(pending);
+    }
+
+    private void apply(Pending pending) {
+        // Cada flush puede disparar listeners que agregan incrementos
+        while (!pending.isEmpty()) {
+            Set<Long> data = pending.data;
+            Set<Long> stock = pending.stock;
+            Set<Long> categories = pending.categories;
+            pending.clear();
+            if (!data.isEmpty()) increment(data, true);
+            if (!stock.isEmpty()) increment(stock, false);
+            if (!categories.isEmpty()) versionRepository.incrementDataByCategory(categories);
+            entityManager.flush();
+        }
+    }
+
+    private void increment(Set<Long> productIds, boolean data) {
+        int updated = data ? versionRepository.incrementData(productIds) : versionRepository.incrementStock(productIds);
+        if (updated == productIds.size()) return;
+        // Productos nuevos: todavía no tienen fila
+        Set<Long> missing = new TreeSet<>(productIds);
+        versionRepository.findAllById(productIds).forEach(v -> missing.remove(v.getProductId()));
+        List<ProductVersionEntity> created = missing.stream()
+                .map(id -> new ProductVersionEntity(id, data ? 1L : 0L, data ? 0L : 1L))
+                .toList();
+        versionRepository.saveAll(created);
+    }
+
+    private class Pending implements TransactionSynchronization {
+        private Set<Long> data = new TreeSet<>();
+        private Set<Long> stock = new TreeSet<>();
+        private Set<Long> categories = new HashSet<>();
+
+        boolean isEmpty() {
+            return data.isEmpty() && stock.isEmpty() && categories.isEmpty();
+        }
+
+        void clear() {
+            data = new TreeSet<>();
+            stock = new TreeSet<>();
+            categories = new HashSet<>();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersions.this);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.startup.ecommerce.v1.events.ProductCatalogChangedEvent;
+import com.startup.ecommerce.v1.services.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Productos destacados ya serializados a JSON, listos para escribir en la respuesta.
+ * Se reconstruye en segundo plano cuando cambia el catálogo y periódicamente
+ * (app.catalog.featured-refresh), lo que además acota cuán viejo puede estar el stock.
+ * Si una reconstrucción falla se sigue sirviendo la versión anterior.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeaturedProductsSnapshot {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    private volatile byte[] json;
+
+    // Lock en lugar de synchronized: la reconstrucción consulta la base y, con hilos virtuales,
+    // bloquearse dentro de un monitor fija el hilo a su carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * JSON actual. Solo la primera petición antes de cualquier reconstrucción lo genera en línea.
+     * El arreglo es compartido: no debe modificarse.
+     */
+    public byte[] json() {
+        byte[] current = json;
+        return current != null ? current : rebuild();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.featured-refresh:PT1M}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo reconstruir el snapshot de destacados", e);
+        }
+    }
+
+    private byte[] rebuild() {
+        rebuildLock.lock();
+        try {
+            byte[] rebuilt = objectMapper.writeValueAsBytes(productService.getFeaturedProducts());
+            json = rebuilt;
+            return rebuilt;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error serializando productos destacados", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
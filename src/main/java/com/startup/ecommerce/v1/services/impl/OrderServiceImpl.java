@@ -1,15 +1,19 @@
 package com.startup.ecommerce.v1.services.impl;
 
 import com.startup.ecommerce.v1.dto.CreateOrderDto;
+import com.startup.ecommerce.v1.dto.CursorPageDto;
 import com.startup.ecommerce.v1.dto.OrderDto;
 import com.startup.ecommerce.v1.dto.OrderItemDto;
+import com.startup.ecommerce.v1.dto.OrderSummaryDto;
 import com.startup.ecommerce.v1.entities.CartEntity;
 import com.startup.ecommerce.v1.entities.CartItemEntity;
 import com.startup.ecommerce.v1.entities.OrderEntity;
 import com.startup.ecommerce.v1.entities.OrderItemEntity;
 import com.startup.ecommerce.v1.entities.UserEntity;
 import com.startup.ecommerce.v1.entities.enums.OrderStatus;
+import com.startup.ecommerce.v1.exceptions.InvalidCursorException;
 import com.startup.ecommerce.v1.exceptions.ResourceNotFoundException;
+import com.startup.ecommerce.v1.pagination.CursorCodec;
 import com.startup.ecommerce.v1.repositories.CartRepository;
 import com.startup.ecommerce.v1.repositories.OrderItemRepository;
 import com.startup.ecommerce.v1.repositories.OrderRepository;
@@ -20,12 +24,21 @@ import com.startup.ecommerce.v1.services.StockService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -34,76 +47,118 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
     private final StockService stockService;
+    private final ServiceMetrics metrics;
 
     @Override
     @Transactional
     public OrderDto createOrder(Long userId, CreateOrderDto createOrderDto) {
-        // Obtener el usuario y su carrito
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-        
-        CartEntity cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Carrito no encontrado"));
+        // Cada fase tiene su timer (checkout.phase); las fases que escriben hacen flush para que
+        // su SQL se mida ahí y no en el flush final del commit
+        return metrics.time(ServiceMetrics.CHECKOUT, "create", () -> {
+            // Obtener el usuario y su carrito (con sus items)
+            CheckoutCart checkout = metrics.time(ServiceMetrics.CHECKOUT_PHASE, "load_cart", () -> {
+                UserEntity user = userRepository.findById(userId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
 
-        if (cart.getItems().isEmpty()) {
-            throw new IllegalStateException("El carrito está vacío");
-        }
+                CartEntity cart = cartRepository.findWithItemsByUserId(userId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Carrito no encontrado"));
 
-        // Crear la orden
-        OrderEntity order = new OrderEntity();
-        order.setOrderNumber(generateOrderNumber());
-        order.setUser(user);
-        order.setShippingAddress(createOrderDto.getShippingAddress());
-        order.setNotes(createOrderDto.getNotes());
-        order.setStatus(OrderStatus.PENDIENTE);
-        order.setTotalAmount(calculateTotal(cart.getItems()));
+                if (cart.getItems().isEmpty()) {
+                    throw new IllegalStateException("El carrito está vacío");
+                }
+                return new CheckoutCart(user, cart);
+            });
+            CartEntity cart = checkout.cart();
 
-        // Guardar la orden
-        OrderEntity savedOrder = orderRepository.save(order);
+            // Crear la orden
+            OrderEntity order = metrics.time(ServiceMetrics.CHECKOUT_PHASE, "price", () -> {
+                OrderEntity priced = new OrderEntity();
+                priced.setOrderNumber(generateOrderNumber());
+                priced.setUser(checkout.user());
+                priced.setShippingAddress(createOrderDto.getShippingAddress());
+                priced.setNotes(createOrderDto.getNotes());
+                priced.setStatus(OrderStatus.PENDIENTE);
+                priced.setTotalAmount(calculateTotal(cart.getItems()));
+                return priced;
+            });
 
-        // Crear y guardar los items de la orden
-        Set<OrderItemEntity> orderItems = createOrderItems(cart.getItems(), savedOrder);
-        savedOrder.setItems(orderItems);
+            // Guardar la orden y sus items
+            OrderEntity savedOrder = metrics.time(ServiceMetrics.CHECKOUT_PHASE, "persist_items", () -> {
+                OrderEntity saved = orderRepository.save(order);
+                saved.setItems(createOrderItems(cart.getItems(), saved));
+                orderItemRepository.flush();
+                return saved;
+            });
 
-        // Reservar el stock
-        orderItems.forEach(item -> 
-            stockService.reserveStock(item.getProduct().getId(), item.getQuantity())
-        );
+            // Reservar el stock de todas las líneas en una sola operación (todo o nada)
+            metrics.time(ServiceMetrics.CHECKOUT_PHASE, "reserve_stock", () -> {
+                Map<Long, Integer> quantitiesByProduct = new HashMap<>();
+                savedOrder.getItems().forEach(item ->
+                    quantitiesByProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum)
+                );
+                stockService.reserveAll(quantitiesByProduct);
+            });
 
-        // Limpiar el carrito
-        cartRepository.delete(cart);
+            // Limpiar el carrito
+            metrics.time(ServiceMetrics.CHECKOUT_PHASE, "clear_cart", () -> {
+                cartRepository.delete(cart);
+                cartRepository.flush();
+            });
 
-        return mapToOrderDto(savedOrder);
+            return mapToOrderDto(savedOrder);
+        });
     }
 
     @Override
     public OrderDto getOrderById(Long orderId) {
-        OrderEntity order = orderRepository.findById(orderId)
+        OrderEntity order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Orden no encontrada"));
         return mapToOrderDto(order);
     }
 
     @Override
-    public List<OrderDto> getOrdersByUserId(Long userId) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-        
-        return orderRepository.findByUser(user, Pageable.unpaged())
-                .getContent()
-                .stream()
-                .map(this::mapToOrderDto)
-                .collect(Collectors.toList());
+    public Page<OrderSummaryDto> getOrderSummariesByUserId(Long userId, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize(size),
+                Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+        return orderRepository.findSummariesByUserId(userId, pageable);
+    }
+
+    @Override
+    public CursorPageDto<OrderSummaryDto> scrollOrderSummariesByUserId(Long userId, String cursor, int size) {
+        int limit = pageSize(size);
+        // Se pide una fila extra para saber si hay página siguiente sin hacer COUNT
+        List<OrderSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findLatestSummariesByUserId(userId, Limit.of(limit + 1));
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            rows = orderRepository.findSummariesByUserIdBefore(userId, parseCreatedAt(position[0]), parseId(position[1]), Limit.of(limit + 1));
+        }
+        boolean hasNext = rows.size() > limit;
+        List<OrderSummaryDto> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            OrderSummaryDto last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt().toString(), last.getId().toString());
+        }
+        return CursorPageDto.<OrderSummaryDto>builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Override
     @Transactional
     public OrderDto updateOrderStatus(Long orderId, OrderStatus status) {
-        OrderEntity order = orderRepository.findById(orderId)
+        OrderEntity order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Orden no encontrada"));
         
         // Validar transiciones de estado
@@ -137,6 +192,29 @@ public class OrderServiceImpl implements OrderService {
 
     // Métodos auxiliares privados
 
+    private record CheckoutCart(UserEntity user, CartEntity cart) {
+    }
+
+    private int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    private LocalDateTime parseCreatedAt(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor inválido", e);
+        }
+    }
+
+    private Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Cursor inválido", e);
+        }
+    }
+
     private String generateOrderNumber() {
         return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
@@ -148,7 +226,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private Set<OrderItemEntity> createOrderItems(Set<CartItemEntity> cartItems, OrderEntity order) {
-        Set<OrderItemEntity> orderItems = new HashSet<>();
+        List<OrderItemEntity> orderItems = new ArrayList<>(cartItems.size());
         
         for (CartItemEntity cartItem : cartItems) {
             OrderItemEntity orderItem = new OrderItemEntity();
@@ -159,11 +237,11 @@ public class OrderServiceImpl implements OrderService {
             orderItem.setUnitPrice(cartItem.getVariant().getPrice());
             orderItem.setTotalPrice(cartItem.getVariant().getPrice()
                     .multiply(BigDecimal.valueOf(cartItem.getQuantity())));
-            
-            orderItems.add(orderItemRepository.save(orderItem));
+            orderItems.add(orderItem);
         }
         
-        return orderItems;
+        // Los INSERT se envían en batch al hacer flush
+        return new HashSet<>(orderItemRepository.saveAll(orderItems));
     }
 
     private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
@@ -0,0 +1,63 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.config.CacheConfig;
+import com.startup.ecommerce.v1.dto.ProductDto;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Caché de lectura del catálogo, delante de ProductRepository.
+ * Guarda los productos sin stock (stock = null): el stock cambia con cada reserva y se
+ * superpone al leer, de modo que esos cambios no invalidan los datos del producto.
+ * El detalle y el listado completo se guardan bajo la versión de datos (CatalogVersions) con la que
+ * se pidieron: un cambio hecho a través de cualquier instancia cambia la versión y con ella la clave,
+ * así que nunca se sirve un producto anterior con un ETag nuevo.
+ * Las cargas usan transacciones de lectura-escritura a propósito: así leen del primario y no
+ * de una réplica atrasada, que dejaría datos anteriores bajo una versión nueva.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogCache {
+
+    private static final String ALL = "'all:' + #version";
+    private static final String FEATURED = "'featured'";
+
+    private final ProductRepository productRepository;
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id + ':' + #version", unless = "#result == null")
+    @Transactional
+    public ProductDto findById(Long id, long version) {
+        return productRepository.findById(id).map(p -> ProductMapper.toDto(p, null)).orElse(null);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_LISTS, key = ALL)
+    @Transactional
+    public List<ProductDto> findAll(long version) {
+        return toDtos(productRepository.findAll());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_LISTS, key = FEATURED)
+    @Transactional
+    public List<ProductDto> findFeatured() {
+        return toDtos(productRepository.findByFeaturedTrue());
+    }
+
+    /**
+     * Invalida los listados. Los destacados no llevan versión y dependen de esta invalidación,
+     * que se aplica al confirmar la transacción que modificó el producto.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_LISTS, allEntries = true)
+    public void evictLists() {
+    }
+
+    private List<ProductDto> toDtos(List<ProductEntity> entities) {
+        return entities.stream().map(p -> ProductMapper.toDto(p, null)).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.startup.ecommerce.v1.dto.ProductDto;
+import com.startup.ecommerce.v1.dto.ProductVariantDto;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.exceptions.ServiceBusyException;
+import com.startup.ecommerce.v1.repositories.ProductRepository;
+import com.startup.ecommerce.v1.repositories.ProductVariantRepository;
+import com.startup.ecommerce.v1.services.ProductExportService;
+import com.startup.ecommerce.v1.services.StockService;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ProductExportServiceImpl implements ProductExportService {
+    private static final String CSV_HEADER = "id,name,price,category,image,featured,stock,skus";
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final StockService stockService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Semaphore slots;
+
+    public ProductExportServiceImpl(ProductRepository productRepository,
+                                    ProductVariantRepository productVariantRepository,
+                                    StockService stockService,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.stockService = stockService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public Slot reserveSlot() {
+        if (!slots.tryAcquire()) {
+            throw new ServiceBusyException("Hay demasiadas exportaciones del catálogo en curso, reintente en unos minutos");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) slots.release();
+        };
+    }
+
+    /**
+     * El timeout de la transacción acota cuánto se retiene la conexión (y el cursor del servidor)
+     * con un cliente lento: vencido, la siguiente consulta de la exportación falla y la libera.
+     */
+    @Override
+    @Transactional(readOnly = true, timeoutString = "${app.export.timeout-seconds:300}")
+    public void exportCatalog(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<ProductEntity> products = productRepository.streamAllForExport()) {
+            Iterator<ProductEntity> it = products.iterator();
+            List<ProductEntity> chunk = new ArrayList<>(ProductRepository.EXPORT_FETCH_SIZE);
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == ProductRepository.EXPORT_FETCH_SIZE || !it.hasNext()) {
+                    for (ProductDto dto : toDtos(chunk)) {
+                        write(format, dto, writer);
+                    }
+                    writer.flush(); // la tanda sale al cliente antes de leer la siguiente
+                    chunk.clear();
+                    entityManager.clear(); // suelta las entidades ya escritas: memoria constante
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Variantes y stock de toda la tanda en dos consultas.
+     */
+    private List<ProductDto> toDtos(List<ProductEntity> chunk) {
+        List<Long> ids = chunk.stream().map(ProductEntity::getId).toList();
+        Map<Long, List<ProductVariantEntity>> variantsByProduct = productVariantRepository.findByProductIdIn(ids).stream()
+                .collect(Collectors.groupingBy(v -> v.getProduct().getId()));
+        Map<Long, Integer> stockByProduct = stockService.getAvailableStock(ids);
+        return chunk.stream()
+                .map(p -> ProductMapper.toDto(p, stockByProduct.getOrDefault(p.getId(), 0), variantsByProduct.getOrDefault(p.getId(), List.of())))
+                .toList();
+    }
+
+    private void write(Format format, ProductDto dto, Writer writer) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(dto));
+        } else {
+            writer.write(String.join(",",
+                    String.valueOf(dto.getId()),
+                    csv(dto.getName()),
+                    String.valueOf(dto.getPrice()),
+                    csv(dto.getCategory() != null ? dto.getCategory().getName() : null),
+                    csv(dto.getImage()),
+                    String.valueOf(Boolean.TRUE.equals(dto.getFeatured())),
+                    String.valueOf(dto.getStock()),
+                    csv(dto.getVariants().stream().map(ProductVariantDto::getSku).collect(Collectors.joining("|")))));
+        }
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,85 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.dto.CategorySimpleDto;
+import com.startup.ecommerce.v1.dto.ProductDto;
+import com.startup.ecommerce.v1.dto.ProductVariantDto;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Conversión de productos y variantes a DTO.
+ * El stock se maneja aparte del resto de los datos para poder cachear el catálogo
+ * y superponer el stock vigente en cada lectura.
+ */
+public final class ProductMapper {
+
+    private ProductMapper() {
+    }
+
+    public static ProductDto toDto(ProductEntity entity, Integer stock) {
+        return toDto(entity, stock, entity.getVariants());
+    }
+
+    /**
+     * Igual que {@link #toDto(ProductEntity, Integer)} pero con variantes ya cargadas aparte,
+     * sin inicializar la colección lazy del producto.
+     */
+    public static ProductDto toDto(ProductEntity entity, Integer stock, Collection<ProductVariantEntity> variants) {
+        return ProductDto.builder()
+                .id(entity.getId())
+                .name(entity.getName())
+                .price(entity.getPrice())
+                .image(entity.getImage())
+                .stock(stock) // Stock desde StockService
+                .featured(entity.getFeatured())
+                .category(entity.getCategory() != null ? new CategorySimpleDto(entity.getCategory().getId(), entity.getCategory().getName()) : null)
+                .variants(variants != null ? variants.stream()
+                        .map(v -> toVariantDto(v, stock)) // Stock del producto, no de la variante
+                        .toList() : List.of())
+                .build();
+    }
+
+    public static ProductVariantDto toVariantDto(ProductVariantEntity variant, Integer stock) {
+        return ProductVariantDto.builder()
+                .id(variant.getId())
+                .size(variant.getSize())
+                .colorName(variant.getColorName())
+                .colorHex(variant.getColorHex())
+                .sku(variant.getSku())
+                .stock(stock)
+                .build();
+    }
+
+    /**
+     * Copia del producto (y sus variantes) con el stock indicado. No modifica el original,
+     * que puede estar compartido en la caché del catálogo.
+     */
+    public static ProductDto withStock(ProductDto product, Integer stock) {
+        return ProductDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .image(product.getImage())
+                .stock(stock)
+                .featured(product.getFeatured())
+                .category(product.getCategory())
+                .variants(product.getVariants() != null ? product.getVariants().stream()
+                        .map(v -> withStock(v, stock))
+                        .toList() : List.of())
+                .build();
+    }
+
+    public static ProductVariantDto withStock(ProductVariantDto variant, Integer stock) {
+        return ProductVariantDto.builder()
+                .id(variant.getId())
+                .size(variant.getSize())
+                .colorName(variant.getColorName())
+                .colorHex(variant.getColorHex())
+                .sku(variant.getSku())
+                .stock(stock)
+                .build();
+    }
+}
@@ -1,31 +1,71 @@
 package com.startup.ecommerce.v1.services.impl;
 
+import com.startup.ecommerce.v1.dto.CursorPageDto;
 import com.startup.ecommerce.v1.dto.ProductDto;
-import com.startup.ecommerce.v1.dto.CategorySimpleDto;
+import com.startup.ecommerce.v1.dto.ProductFacetsDto;
+import com.startup.ecommerce.v1.dto.ProductSuggestionDto;
 import com.startup.ecommerce.v1.dto.CreateProductVariantDto;
 import com.startup.ecommerce.v1.dto.ProductVariantDto;
 import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.events.ProductCatalogChangedEvent;
 import com.startup.ecommerce.v1.entities.ProductVariantEntity;
 import com.startup.ecommerce.v1.repositories.ProductRepository;
 import com.startup.ecommerce.v1.repositories.ProductVariantRepository;
 import com.startup.ecommerce.v1.repositories.CategoryRepository;
+import com.startup.ecommerce.v1.repositories.specifications.ProductSpecifications;
+import com.startup.ecommerce.v1.search.ProductAttributeIndex;
+import com.startup.ecommerce.v1.search.ProductSearchIndex;
+import com.startup.ecommerce.v1.search.ProductSuggestIndex;
 import com.startup.ecommerce.v1.services.StockService;
 import com.startup.ecommerce.v1.services.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import com.startup.ecommerce.v1.exceptions.InvalidCursorException;
+import com.startup.ecommerce.v1.exceptions.ResourceNotFoundException;
+import com.startup.ecommerce.v1.pagination.CursorCodec;
 import com.startup.ecommerce.v1.entities.enums.Size;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
+    private static final int MAX_PAGE_SIZE = 100;
+    /** Tope de ids que se pasan a SQL como lista IN */
+    private static final int MAX_IN_LIST = 5000;
+    private static final int MAX_SUGGESTIONS = ProductSuggestIndex.MAX_SUGGESTIONS;
+
     private final ProductRepository productRepository;
     private final ProductVariantRepository productVariantRepository;
     private final CategoryRepository categoryRepository;
     private final StockService stockService;
+    private final ProductCatalogCache catalogCache;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductAttributeIndex attributeIndex;
+
+    // Límites de los rangos de precio de las facetas de búsqueda
+    @Value("${app.search.price-buckets:10000,25000,50000,100000}")
+    private List<Double> priceBuckets;
 
     @Override
+    @Transactional
     public ProductDto createProduct(ProductDto productDto) {
         ProductEntity entity = toEntity(productDto);
         // set categoría
@@ -36,11 +76,13 @@ public class ProductServiceImpl implements ProductService {
         if (productDto.getStock() != null && productDto.getStock() > 0) {
             stockService.createStock(saved, productDto.getStock());
         }
+        catalogChanged(saved.getId());
         
         return toDto(saved);
     }
 
     @Override
+    @Transactional
     public ProductDto updateProduct(Long id, ProductDto productDto) {
         ProductEntity entity = productRepository.findById(id).orElseThrow();
         entity.setName(productDto.getName());
@@ -54,83 +96,258 @@ public class ProductServiceImpl implements ProductService {
         if (productDto.getStock() != null) {
             stockService.updateStock(id, productDto.getStock());
         }
+        catalogChanged(id);
         
         return toDto(updated);
     }
 
     @Override
+    @Transactional
     public void deleteProduct(Long id) {
         // Eliminar stock asociado
         stockService.deleteStock(id);
         productRepository.deleteById(id);
+        catalogChanged(id);
     }
 
+    // Lecturas del catálogo: datos del producto desde la caché, stock siempre actual
+
     @Override
     public ProductDto getProductById(Long id) {
-        return productRepository.findById(id).map(this::toDto).orElse(null);
+        ProductDto cached = catalogCache.findById(id, catalogVersions.dataVersion(id));
+        return cached == null ? null : ProductMapper.withStock(cached, stockService.getAvailableStock(id));
     }
 
     @Override
     public List<ProductDto> getAllProducts() {
-        return productRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+        return withStock(catalogCache.findAll(catalogVersions.catalogDataVersion()));
     }
 
     @Override
     public List<ProductDto> getFeaturedProducts() {
-        return productRepository.findByFeaturedTrue().stream().map(this::toDto).toList();
+        return withStock(catalogCache.findFeatured());
     }
 
     @Override
-    public List<ProductDto> searchProducts(String search, String category, String size, String color, Double minPrice, Double maxPrice, String sort, int page, int sizePage) {
-        // Filtro base en memoria (a optimizar con Specifications/JPQL más adelante)
-        List<ProductEntity> products = productRepository.findAll().stream()
-            .filter(p -> (category == null || p.getCategory().getName().equalsIgnoreCase(category)))
-            .filter(p -> (search == null || p.getName().toLowerCase().contains(search.toLowerCase())))
-            .filter(p -> (minPrice == null || p.getPrice() >= minPrice))
-            .filter(p -> (maxPrice == null || p.getPrice() <= maxPrice))
-            .toList();
-        // Filtro por variantes (talla y color)
-        if (size != null || color != null) {
-            products = products.stream().filter(p ->
-                p.getVariants() != null && p.getVariants().stream().anyMatch(v ->
-                    (size == null || v.getSize().name().equalsIgnoreCase(size)) &&
-                    (color == null || v.getColorName().equalsIgnoreCase(color))
-                )
-            ).toList();
-        }
-        // Orden básico por precio
-        if ("price_asc".equalsIgnoreCase(sort)) {
-            products = products.stream().sorted(java.util.Comparator.comparing(ProductEntity::getPrice)).toList();
-        } else if ("price_desc".equalsIgnoreCase(sort)) {
-            products = products.stream().sorted(java.util.Comparator.comparing(ProductEntity::getPrice).reversed()).toList();
-        }
-        // Paginación manual
-        int from = Math.min(page * sizePage, products.size());
-        int to = Math.min(from + sizePage, products.size());
-        List<ProductEntity> paged = products.subList(from, to);
-        return paged.stream().map(this::toDto).toList();
+    @Transactional(readOnly = true)
+    public Page<ProductDto> searchProducts(String search, String category, String size, String color, Double minPrice, Double maxPrice, String sort, int page, int sizePage) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize(sizePage), ProductSort.from(sort).toSort());
+        SearchPlan plan = plan(search, category, size, color, minPrice, maxPrice);
+        if (plan == null) {
+            return Page.empty(pageable);
+        }
+        if (plan.ranked() != null && (sort == null || sort.isBlank() || sort.equalsIgnoreCase("relevance"))) {
+            // Orden por relevancia: lo da el índice, la base solo aplica los filtros
+            return searchByRelevance(plan, pageable);
+        }
+        // Filtros, orden y paginación se resuelven en la base de datos
+        Page<ProductEntity> products = productRepository.findAll(plan.filters().and(ProductSpecifications.fetchCategory()), pageable);
+        return new PageImpl<>(toDtos(products.getContent()), pageable, products.getTotalElements());
     }
 
-    private ProductDto toDto(ProductEntity entity) {
-        return ProductDto.builder()
-                .id(entity.getId())
-                .name(entity.getName())
-                .price(entity.getPrice())
-                .image(entity.getImage())
-                .stock(stockService.getAvailableStock(entity.getId())) // Stock desde StockService
-                .featured(entity.getFeatured())
-                .category(entity.getCategory() != null ? new CategorySimpleDto(entity.getCategory().getId(), entity.getCategory().getName()) : null)
-                .variants(entity.getVariants() != null ? entity.getVariants().stream().map(v -> com.startup.ecommerce.v1.dto.ProductVariantDto.builder()
-                        .id(v.getId())
-                        .size(v.getSize())
-                        .colorName(v.getColorName())
-                        .colorHex(v.getColorHex())
-                        .sku(v.getSku())
-                        .stock(stockService.getAvailableStock(entity.getId())) // Stock del producto, no de la variante
-                        .build()).toList() : java.util.List.of())
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductDto> scrollProducts(String search, String category, String size, String color, Double minPrice, Double maxPrice, String sort, String cursor, int sizePage) {
+        ProductSort order = ProductSort.from(sort);
+        int limit = pageSize(sizePage);
+        SearchPlan plan = plan(search, category, size, color, minPrice, maxPrice);
+        if (plan == null) {
+            return CursorPageDto.<ProductDto>builder().content(List.of()).hasNext(false).build();
+        }
+        Specification<ProductEntity> spec = plan.filters();
+        if (cursor != null && !cursor.isBlank()) {
+            // El cursor indica el modo de orden con el que se generó: no sirve para otro
+            String[] position = CursorCodec.decode(cursor, 3);
+            if (!position[0].equals(order.name())) {
+                throw new InvalidCursorException("El cursor corresponde a otro orden");
+            }
+            spec = spec.and(ProductSpecifications.seekAfter(order.attribute(), order.descending(), order.parseKey(position[1]),
+                    parseId(position[2]), order.idDescending()));
+        }
+
+        // Se pide una fila extra para saber si hay página siguiente sin hacer COUNT
+        List<ProductEntity> rows = productRepository.findBy(spec.and(ProductSpecifications.fetchCategory()),
+                q -> q.sortBy(order.toSort()).limit(limit + 1).all());
+        boolean hasNext = rows.size() > limit;
+        List<ProductEntity> products = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ProductEntity last = products.get(products.size() - 1);
+            nextCursor = CursorCodec.encode(order.name(), order.keyOf(last), last.getId().toString());
+        }
+        return CursorPageDto.<ProductDto>builder()
+                .content(toDtos(products))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFacetsDto getSearchFacets(String search, String category, String size, String color, Double minPrice, Double maxPrice) {
+        // Cada faceta se cuenta con todos los filtros menos el suyo: junto a cada opción queda
+        // cuántos resultados habría al elegirla
+        SearchPlan plan = plan(search, null, null, null, null, null);
+        if (plan == null) {
+            return new ProductFacetsDto(List.of(), List.of(), List.of(), List.of());
+        }
+        Specification<ProductEntity> text = plan.text();
+        Specification<ProductEntity> inCategory = ProductSpecifications.inCategory(category);
+        Specification<ProductEntity> hasVariant = ProductSpecifications.hasVariant(size, color);
+        Specification<ProductEntity> price = priceFilter(minPrice, maxPrice);
+        return ProductFacetsDto.builder()
+                .categories(productRepository.countByCategory(Specification.allOf(text, hasVariant, price)))
+                .sizes(productRepository.countBySize(Specification.allOf(text, inCategory, price), color))
+                .colors(productRepository.countByColor(Specification.allOf(text, inCategory, price), size))
+                .prices(productRepository.countByPriceRange(Specification.allOf(text, inCategory, hasVariant), priceBuckets))
                 .build();
     }
 
+    /**
+     * Filtros de una búsqueda y, si el índice de texto está cargado, sus coincidencias por relevancia.
+     * @param ranked todas las coincidencias del índice de texto, de más a menos relevante;
+     *               null si la búsqueda no usa el índice
+     * @param text    el filtro de texto solo
+     * @param filters todos los filtros (texto, categoría, talla, color, precio) como Specification
+     * @param exact   true si ranked ya es exactamente el conjunto que cumple los filtros
+     */
+    private record SearchPlan(List<Long> ranked, Specification<ProductEntity> text, Specification<ProductEntity> filters, boolean exact) {
+    }
+
+    /**
+     * Arma los filtros de búsqueda. Categoría, talla y color se filtran siempre en SQL: el índice de
+     * atributos es de esta instancia y se actualiza solo con los cambios hechos a través de ella, así
+     * que únicamente sirve para cortar antes una búsqueda que no puede tener resultados.
+     * Devuelve null si ya se sabe que no hay resultados.
+     */
+    private SearchPlan plan(String search, String category, String size, String color, Double minPrice, Double maxPrice) {
+        BitSet attributeMatches = attributeIndex.match(category, size, color);
+        if (attributeMatches != null && attributeMatches.isEmpty()) {
+            return null;
+        }
+        Specification<ProductEntity> attributes = attributeFilter(category, size, color);
+        Specification<ProductEntity> price = priceFilter(minPrice, maxPrice);
+        if (!notBlank(search) || !searchIndex.isReady()) {
+            Specification<ProductEntity> text = ProductSpecifications.nameContains(search); // índice aún cargando: búsqueda por SQL
+            return new SearchPlan(null, text, Specification.allOf(text, attributes, price), false);
+        }
+
+        List<Long> ranked = searchIndex.search(search);
+        if (ranked.isEmpty()) {
+            return null;
+        }
+        if (ranked.size() <= MAX_IN_LIST) {
+            // Coincidencias del índice; la base aplica el resto de los filtros
+            Specification<ProductEntity> text = ProductSpecifications.idIn(ranked);
+            boolean filtered = notBlank(category) || notBlank(size) || notBlank(color) || minPrice != null || maxPrice != null;
+            return new SearchPlan(ranked, text, Specification.allOf(text, attributes, price), !filtered);
+        }
+        // Demasiadas coincidencias para una lista IN: el texto se busca por SQL y el índice solo ordena
+        Specification<ProductEntity> text = ProductSpecifications.nameContains(search);
+        return new SearchPlan(ranked, text, Specification.allOf(text, attributes, price), false);
+    }
+
+    private Specification<ProductEntity> priceFilter(Double minPrice, Double maxPrice) {
+        return Specification.allOf(
+                ProductSpecifications.priceAtLeast(minPrice),
+                ProductSpecifications.priceAtMost(maxPrice)
+        );
+    }
+
+    private Specification<ProductEntity> attributeFilter(String category, String size, String color) {
+        return Specification.allOf(
+                ProductSpecifications.inCategory(category),
+                ProductSpecifications.hasVariant(size, color)
+        );
+    }
+
+    private static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Página de resultados en el orden del índice. Los filtros se aplican a todas las coincidencias
+     * con una consulta de solo ids y se cargan únicamente los productos de la página.
+     * Los productos que encuentra la búsqueda por SQL y no el índice van al final, por id.
+     */
+    private Page<ProductDto> searchByRelevance(SearchPlan plan, Pageable pageable) {
+        List<Long> matching = plan.ranked();
+        if (!plan.exact()) {
+            Map<Long, Integer> position = new HashMap<>();
+            for (int i = 0; i < plan.ranked().size(); i++) {
+                position.put(plan.ranked().get(i), i);
+            }
+            matching = new ArrayList<>(productRepository.findIds(plan.filters()));
+            matching.sort(Comparator.comparing((Long id) -> position.getOrDefault(id, Integer.MAX_VALUE)).thenComparing(id -> id));
+        }
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        List<Long> pageIds = matching.subList(from, Math.min(from + pageable.getPageSize(), matching.size()));
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, matching.size());
+        }
+
+        Map<Long, ProductEntity> byId = new HashMap<>();
+        productRepository.findAll(Specification.allOf(ProductSpecifications.idIn(pageIds), ProductSpecifications.fetchCategory()))
+                .forEach(p -> byId.put(p.getId(), p));
+        List<ProductEntity> products = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(toDtos(products), pageable, matching.size());
+    }
+
+    @Override
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS)).stream()
+                .map(s -> new ProductSuggestionDto(s.productId(), s.name()))
+                .toList();
+    }
+
+    private static boolean notBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private ProductDto toDto(ProductEntity entity) {
+        return ProductMapper.toDto(entity, stockService.getAvailableStock(entity.getId()));
+    }
+
+    /**
+     * Superpone el stock vigente a productos cacheados, con una sola consulta para todos.
+     */
+    private List<ProductDto> withStock(List<ProductDto> products) {
+        Map<Long, Integer> stockByProduct = stockService.getAvailableStock(products.stream().map(ProductDto::getId).toList());
+        return products.stream().map(p -> ProductMapper.withStock(p, stockByProduct.getOrDefault(p.getId(), 0))).toList();
+    }
+
+    /**
+     * Invalida el producto en la caché y avisa a quienes derivan datos del catálogo
+     * (snapshot de destacados). Ambos se aplican al confirmar la transacción.
+     */
+    private void catalogChanged(Long productId) {
+        catalogCache.evictLists();
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(productId));
+    }
+
+    /**
+     * Variantes y stock de toda la página en dos consultas, en lugar de inicializar
+     * la colección lazy de variantes producto por producto.
+     */
+    private List<ProductDto> toDtos(List<ProductEntity> entities) {
+        List<Long> ids = entities.stream().map(ProductEntity::getId).toList();
+        if (ids.isEmpty()) return List.of();
+        Map<Long, List<ProductVariantEntity>> variantsByProduct = productVariantRepository.findByProductIdIn(ids).stream()
+                .collect(Collectors.groupingBy(v -> v.getProduct().getId()));
+        Map<Long, Integer> stockByProduct = stockService.getAvailableStock(ids);
+        return entities.stream()
+                .map(p -> ProductMapper.toDto(p, stockByProduct.getOrDefault(p.getId(), 0), variantsByProduct.getOrDefault(p.getId(), List.of())))
+                .toList();
+    }
+
     private void applyCategory(ProductEntity entity, ProductDto dto) {
         if (dto.getCategory() == null) return;
         Long categoryId = dto.getCategory().getId();
@@ -165,6 +382,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional
     public ProductVariantDto addVariant(Long productId, CreateProductVariantDto dto) {
         ProductEntity product = productRepository.findById(productId).orElseThrow();
         Size size = dto.getSize();
@@ -182,35 +400,23 @@ public class ProductServiceImpl implements ProductService {
         ProductVariantEntity saved = productVariantRepository.save(variant);
         
         if (product.getVariants() != null) product.getVariants().add(saved);
+        catalogChanged(productId);
         
-        return ProductVariantDto.builder()
-                .id(saved.getId())
-                .size(saved.getSize())
-                .colorName(saved.getColorName())
-                .colorHex(saved.getColorHex())
-                .sku(saved.getSku())
-                .stock(stockService.getAvailableStock(productId)) // Stock del producto
-                .build();
+        return ProductMapper.toVariantDto(saved, stockService.getAvailableStock(productId)); // Stock del producto
     }
 
     @Override
     public List<ProductVariantDto> listVariants(Long productId) {
-        ProductEntity product = productRepository.findById(productId).orElseThrow();
+        ProductDto product = catalogCache.findById(productId, catalogVersions.dataVersion(productId));
+        if (product == null) throw new ResourceNotFoundException("Producto no encontrado");
         Integer productStock = stockService.getAvailableStock(productId);
-        return (product.getVariants() == null ? java.util.Set.<ProductVariantEntity>of() : product.getVariants())
-                .stream()
-                .map(v -> ProductVariantDto.builder()
-                        .id(v.getId())
-                        .size(v.getSize())
-                        .colorName(v.getColorName())
-                        .colorHex(v.getColorHex())
-                        .sku(v.getSku())
-                        .stock(productStock) // Stock del producto para todas las variantes
-                        .build())
+        return product.getVariants().stream()
+                .map(v -> ProductMapper.withStock(v, productStock)) // Stock del producto para todas las variantes
                 .toList();
     }
 
     @Override
+    @Transactional
     public ProductVariantDto updateVariant(Long productId, Long variantId, CreateProductVariantDto dto) {
         ProductEntity product = productRepository.findById(productId).orElseThrow();
         ProductVariantEntity variant = productVariantRepository.findById(variantId).orElseThrow();
@@ -231,18 +437,13 @@ public class ProductServiceImpl implements ProductService {
             variant.setSku(dto.getSku());
         }
         ProductVariantEntity updated = productVariantRepository.save(variant);
+        catalogChanged(productId);
         
-        return ProductVariantDto.builder()
-                .id(updated.getId())
-                .size(updated.getSize())
-                .colorName(updated.getColorName())
-                .colorHex(updated.getColorHex())
-                .sku(updated.getSku())
-                .stock(stockService.getAvailableStock(productId)) // Stock del producto
-                .build();
+        return ProductMapper.toVariantDto(updated, stockService.getAvailableStock(productId)); // Stock del producto
     }
 
     @Override
+    @Transactional
     public void deleteVariant(Long productId, Long variantId) {
         ProductEntity product = productRepository.findById(productId).orElseThrow();
         ProductVariantEntity variant = productVariantRepository.findById(variantId).orElseThrow();
@@ -251,5 +452,6 @@ public class ProductServiceImpl implements ProductService {
         }
         productVariantRepository.delete(variant);
         if (product.getVariants() != null) product.getVariants().removeIf(v -> v.getId().equals(variantId));
+        catalogChanged(productId);
     }
 }
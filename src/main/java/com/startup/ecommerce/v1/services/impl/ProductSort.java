@@ -0,0 +1,96 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.exceptions.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+/**
+ * Modos de orden del listado y la búsqueda de productos (parámetro sort).
+ * Cada modo ordena por una columna y desempata por id, lo que da un orden total:
+ * sirve tanto para OFFSET como para paginación keyset, donde el cursor guarda el valor
+ * de la columna y el id de la última fila entregada.
+ */
+enum ProductSort {
+
+    ID(null, Sort.Direction.ASC, Sort.Direction.ASC),
+    PRICE_ASC("price", Sort.Direction.ASC, Sort.Direction.ASC),
+    PRICE_DESC("price", Sort.Direction.DESC, Sort.Direction.ASC),
+    NAME_ASC("name", Sort.Direction.ASC, Sort.Direction.ASC),
+    NAME_DESC("name", Sort.Direction.DESC, Sort.Direction.ASC),
+    CREATED_DESC("createdAt", Sort.Direction.DESC, Sort.Direction.DESC);
+
+    private final String attribute;
+    private final Sort.Direction direction;
+    private final Sort.Direction idDirection;
+
+    ProductSort(String attribute, Sort.Direction direction, Sort.Direction idDirection) {
+        this.attribute = attribute;
+        this.direction = direction;
+        this.idDirection = idDirection;
+    }
+
+    /**
+     * Modo correspondiente al parámetro sort; sin valor o desconocido, por id.
+     */
+    static ProductSort from(String sort) {
+        if (sort == null) return ID;
+        try {
+            return valueOf(sort.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ID;
+        }
+    }
+
+    Sort toSort() {
+        Sort tieBreaker = Sort.by(idDirection, "id"); // desempate estable entre páginas
+        return attribute == null ? tieBreaker : Sort.by(direction, attribute).and(tieBreaker);
+    }
+
+    String attribute() {
+        return attribute;
+    }
+
+    boolean descending() {
+        return direction.isDescending();
+    }
+
+    boolean idDescending() {
+        return idDirection.isDescending();
+    }
+
+    /**
+     * Valor de la columna de orden de un producto, como texto para el cursor.
+     */
+    String keyOf(ProductEntity product) {
+        return switch (this) {
+            case ID -> "";
+            case PRICE_ASC, PRICE_DESC -> product.getPrice().toString();
+            case NAME_ASC, NAME_DESC -> product.getName();
+            case CREATED_DESC -> product.getCreatedAt().toString();
+        };
+    }
+
+    /**
+     * Valor de la columna de orden leído de un cursor.
+     */
+    Comparable<?> parseKey(String value) {
+        return parse(value, switch (this) {
+            case ID -> v -> null;
+            case PRICE_ASC, PRICE_DESC -> Double::valueOf;
+            case NAME_ASC, NAME_DESC -> Function.identity();
+            case CREATED_DESC -> LocalDateTime::parse;
+        });
+    }
+
+    private static Comparable<?> parse(String value, Function<String, ? extends Comparable<?>> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor inválido", e);
+        }
+    }
+}
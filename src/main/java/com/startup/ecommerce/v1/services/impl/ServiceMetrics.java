@@ -0,0 +1,65 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de las operaciones de negocio (stock, carrito, checkout) para ver dónde se va la latencia.
+ * Cada operación es un Timer con histograma de percentiles, etiquetado con operation y con
+ * exception ("none" si terminó bien), igual que http.server.requests.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceMetrics {
+
+    public static final String STOCK = "stock.operation";
+    /** Unidades reservadas, liberadas o consumidas */
+    public static final String STOCK_UNITS = "stock.units";
+    /** Operaciones rechazadas por falta de stock */
+    public static final String STOCK_INSUFFICIENT = "stock.insufficient";
+    public static final String CART = "cart.operation";
+    public static final String CHECKOUT = "checkout.order";
+    public static final String CHECKOUT_PHASE = "checkout.phase";
+
+    private final MeterRegistry registry;
+
+    public <T> T time(String name, String operation, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timer(name, operation, exception));
+        }
+    }
+
+    public void time(String name, String operation, Runnable action) {
+        time(name, operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public void count(String name, String operation, double amount) {
+        Counter.builder(name).tag("operation", operation).register(registry).increment(amount);
+    }
+
+    private Timer timer(String name, String operation, String exception) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+}
@@ -2,16 +2,26 @@ package com.startup.ecommerce.v1.services.impl;
 
 import com.startup.ecommerce.v1.entities.ProductEntity;
 import com.startup.ecommerce.v1.entities.StockEntity;
+import com.startup.ecommerce.v1.exceptions.InsufficientStockException;
 import com.startup.ecommerce.v1.repositories.StockRepository;
 import com.startup.ecommerce.v1.services.StockService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 @Service
 @RequiredArgsConstructor
 public class StockServiceImpl implements StockService {
     private final StockRepository stockRepository;
+    private final CatalogVersions catalogVersions;
+    private final ServiceMetrics metrics;
 
     @Override
     public Integer getAvailableStock(Long productId) {
@@ -20,6 +30,18 @@ public class StockServiceImpl implements StockService {
                 .orElse(0);
     }
 
+    @Override
+    public Map<Long, Integer> getAvailableStock(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Integer> available = new HashMap<>();
+        for (StockEntity stock : stockRepository.findByProductIdIn(productIds)) {
+            available.put(stock.getProduct().getId(), stock.getAvailable());
+        }
+        return available;
+    }
+
     @Override
     public Integer getTotalStock(Long productId) {
         return stockRepository.findByProductId(productId)
@@ -59,43 +81,86 @@ public class StockServiceImpl implements StockService {
     @Override
     @Transactional
     public void reserveStock(Long productId, Integer quantity) {
-        StockEntity stock = stockRepository.findByProductId(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Stock no encontrado para el producto: " + productId));
-        
-        if (stock.getAvailable() < quantity) {
-            throw new IllegalArgumentException("Stock insuficiente. Disponible: " + stock.getAvailable() + ", Solicitado: " + quantity);
+        metrics.time(ServiceMetrics.STOCK, "reserve", () -> {
+            requirePositive(quantity);
+            if (stockRepository.reserve(productId, quantity) == 0) {
+                metrics.count(ServiceMetrics.STOCK_INSUFFICIENT, "reserve", 1);
+                StockEntity stock = findStock(productId);
+                throw new IllegalArgumentException("Stock insuficiente. Disponible: " + stock.getAvailable() + ", Solicitado: " + quantity);
+            }
+            metrics.count(ServiceMetrics.STOCK_UNITS, "reserve", quantity);
+            catalogVersions.stockChanged(productId); // UPDATE masivo: no dispara el listener JPA
+        });
+    }
+
+    @Override
+    @Transactional
+    public void reserveAll(Map<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct == null || quantitiesByProduct.isEmpty()) {
+            return;
         }
-        
-        stock.setReserved(stock.getReserved() + quantity);
-        stockRepository.save(stock);
+        metrics.time(ServiceMetrics.STOCK, "reserve_all", () -> lockAndReserve(quantitiesByProduct));
+    }
+
+    private void lockAndReserve(Map<Long, Integer> quantitiesByProduct) {
+        Map<Long, Integer> requested = new TreeMap<>(quantitiesByProduct);
+        requested.values().forEach(this::requirePositive);
+
+        // Un único SELECT ... FOR UPDATE ordenado por producto
+        Map<Long, StockEntity> stockByProduct = new HashMap<>();
+        for (StockEntity stock : stockRepository.findAllByProductIdForUpdate(requested.keySet())) {
+            stockByProduct.put(stock.getProduct().getId(), stock);
+        }
+
+        List<InsufficientStockException.Shortage> shortages = new ArrayList<>();
+        requested.forEach((productId, quantity) -> {
+            StockEntity stock = stockByProduct.get(productId);
+            int available = stock == null ? 0 : stock.getAvailable();
+            if (available < quantity) {
+                shortages.add(new InsufficientStockException.Shortage(productId, quantity, available));
+            }
+        });
+        if (!shortages.isEmpty()) {
+            metrics.count(ServiceMetrics.STOCK_INSUFFICIENT, "reserve_all", 1);
+            throw new InsufficientStockException(shortages);
+        }
+
+        // Con las filas bloqueadas, los UPDATE se envían juntos en el flush (batch JDBC)
+        requested.forEach((productId, quantity) -> {
+            StockEntity stock = stockByProduct.get(productId);
+            stock.setReserved(stock.getReserved() + quantity);
+        });
+        stockRepository.flush();
+        metrics.count(ServiceMetrics.STOCK_UNITS, "reserve_all", requested.values().stream().mapToInt(Integer::intValue).sum());
     }
 
     @Override
     @Transactional
     public void releaseStock(Long productId, Integer quantity) {
-        StockEntity stock = stockRepository.findByProductId(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Stock no encontrado para el producto: " + productId));
-        
-        if (stock.getReserved() < quantity) {
-            throw new IllegalArgumentException("No se puede liberar más stock del reservado. Reservado: " + stock.getReserved() + ", Solicitado: " + quantity);
-        }
-        
-        stock.setReserved(stock.getReserved() - quantity);
-        stockRepository.save(stock);
+        metrics.time(ServiceMetrics.STOCK, "release", () -> {
+            requirePositive(quantity);
+            if (stockRepository.release(productId, quantity) == 0) {
+                StockEntity stock = findStock(productId);
+                throw new IllegalArgumentException("No se puede liberar más stock del reservado. Reservado: " + stock.getReserved() + ", Solicitado: " + quantity);
+            }
+            metrics.count(ServiceMetrics.STOCK_UNITS, "release", quantity);
+            catalogVersions.stockChanged(productId); // UPDATE masivo: no dispara el listener JPA
+        });
     }
 
     @Override
     @Transactional
     public void consumeStock(Long productId, Integer quantity) {
-        StockEntity stock = stockRepository.findByProductId(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Stock no encontrado para el producto: " + productId));
-        
-        if (stock.getAvailable() < quantity) {
-            throw new IllegalArgumentException("Stock insuficiente. Disponible: " + stock.getAvailable() + ", Solicitado: " + quantity);
-        }
-        
-        stock.setQuantity(stock.getQuantity() - quantity);
-        stockRepository.save(stock);
+        metrics.time(ServiceMetrics.STOCK, "consume", () -> {
+            requirePositive(quantity);
+            if (stockRepository.consume(productId, quantity) == 0) {
+                metrics.count(ServiceMetrics.STOCK_INSUFFICIENT, "consume", 1);
+                StockEntity stock = findStock(productId);
+                throw new IllegalArgumentException("Stock insuficiente. Disponible: " + stock.getAvailable() + ", Solicitado: " + quantity);
+            }
+            metrics.count(ServiceMetrics.STOCK_UNITS, "consume", quantity);
+            catalogVersions.stockChanged(productId); // UPDATE masivo: no dispara el listener JPA
+        });
     }
 
     @Override
@@ -105,4 +170,16 @@ public class StockServiceImpl implements StockService {
                 .orElseThrow(() -> new IllegalArgumentException("Stock no encontrado para el producto: " + productId));
         stockRepository.delete(stock);
     }
+
+    // Solo se consulta la fila cuando el UPDATE condicional no afectó nada, para armar el mensaje de error
+    private StockEntity findStock(Long productId) {
+        return stockRepository.findByProductId(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Stock no encontrado para el producto: " + productId));
+    }
+
+    private void requirePositive(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("La cantidad debe ser mayor a cero");
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.startup.ecommerce.v1.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registrado en hibernate.session_factory.statement_inspector: ve cada sentencia que Hibernate
+ * prepara (consultas, INSERT/UPDATE en batch, JPQL masivo) y la suma al scope abierto del hilo.
+ */
+public class SqlCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,66 @@
+package com.startup.ecommerce.v1.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cuenta las sentencias SQL de cada pedido (incluida la carga del usuario autenticado) y avisa en el log
+ * cuando supera app.sql-stats.warn-threshold, con las sentencias repetidas para ubicar el N+1.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    /** Atributo del request con el {@link SqlStatementCounter.Scope} en curso */
+    public static final String SCOPE_ATTRIBUTE = SqlStatementCountFilter.class.getName() + ".scope";
+
+    private static final int MAX_SHAPES_LOGGED = 3;
+    private static final int MAX_SHAPE_LENGTH = 200;
+
+    private final int warnThreshold;
+
+    public SqlStatementCountFilter(@Value("${app.sql-stats.warn-threshold:20}") int warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            request.setAttribute(SCOPE_ATTRIBUTE, scope);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (scope.count() > warnThreshold) {
+                    log.warn("{} {}: {} sentencias SQL (umbral {}). Repetidas: {}", request.getMethod(),
+                            request.getRequestURI(), scope.count(), warnThreshold, describe(scope.repeated()));
+                }
+            }
+        }
+    }
+
+    private static String describe(Map<String, Integer> repeated) {
+        if (repeated.isEmpty()) return "ninguna";
+        return repeated.entrySet().stream()
+                .limit(MAX_SHAPES_LOGGED)
+                .map(e -> e.getValue() + "x " + abbreviate(e.getKey()))
+                .collect(Collectors.joining(" | "));
+    }
+
+    private static String abbreviate(String shape) {
+        return shape.length() <= MAX_SHAPE_LENGTH ? shape : shape.substring(0, MAX_SHAPE_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,39 @@
+package com.startup.ecommerce.v1.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Con app.sql-stats.header en true (apagado por defecto, para no exponerlo en producción) agrega a cada
+ * respuesta el header X-SQL-Statement-Count con las sentencias ejecutadas hasta escribir el cuerpo. Se escribe acá y no en el filtro porque, una vez enviado
+ * el cuerpo, la respuesta ya está confirmada y no admite headers.
+ */
+@ConditionalOnProperty(name = "app.sql-stats.header", havingValue = "true")
+@ControllerAdvice
+public class SqlStatementCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(SqlStatementCountFilter.SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope) {
+            response.getHeaders().set(HEADER, Integer.toString(scope.count()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,88 @@
+package com.startup.ecommerce.v1.sql;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Cuenta las sentencias SQL que prepara Hibernate en el hilo actual mientras haya un scope abierto
+ * (un pedido HTTP, un test). Los scopes se anidan: cada sentencia suma en todos los abiertos.
+ * Fuera de un scope no se registra nada, así que las tareas en segundo plano no cuestan.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope open() {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        Scope scope = new Scope();
+        scopes.push(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) return;
+        String shape = shape(sql);
+        for (Scope scope : scopes) {
+            scope.add(shape);
+        }
+    }
+
+    /**
+     * Forma de la sentencia, para agrupar las que sólo difieren en el formato o en el largo de un IN.
+     */
+    static String shape(String sql) {
+        String compact = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(compact).replaceAll("(?, ...)");
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Map<String, Integer> byShape = new HashMap<>();
+        private int count;
+
+        private void add(String shape) {
+            count++;
+            byShape.merge(shape, 1, Integer::sum);
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /**
+         * Sentencias ejecutadas más de una vez, de la más repetida a la menos (la pista típica de un N+1).
+         */
+        public Map<String, Integer> repeated() {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            byShape.entrySet().stream()
+                    .filter(e -> e.getValue() > 1)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .forEach(e -> repeated.put(e.getKey(), e.getValue()));
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            if (scopes == null) return;
+            scopes.remove(this);
+            if (scopes.isEmpty()) SCOPES.remove();
+        }
+    }
+}
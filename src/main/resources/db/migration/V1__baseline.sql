@@ -0,0 +1,140 @@
+-- Esquema base: el mismo que generaba Hibernate con ddl-auto (nombres de constraints incluidos),
+-- para que las bases existentes se puedan marcar como versión 1 con baseline-on-migrate.
+
+create table `user` (
+    id          bigint       not null auto_increment,
+    name        varchar(255) not null,
+    email       varchar(255) not null,
+    password    varchar(255) not null,
+    role        enum ('ADMIN','CLIENTE') not null,
+    enabled     bit          not null,
+    created_at  datetime(6)  not null,
+    updated_at  datetime(6)  not null,
+    created_by  varchar(255),
+    updated_by  varchar(255),
+    primary key (id),
+    constraint UKob8kqyqqgmefl0aco34akdtpe unique (email)
+) engine=InnoDB;
+
+create table category (
+    id    bigint       not null auto_increment,
+    name  varchar(255) not null,
+    primary key (id),
+    constraint UK46ccwnsi9409t36lurvtyljak unique (name)
+) engine=InnoDB;
+
+create table product (
+    id           bigint       not null auto_increment,
+    name         varchar(255) not null,
+    price        float(53)    not null,
+    category_id  bigint       not null,
+    image        varchar(255) not null,
+    featured     bit          not null,
+    created_at   datetime(6)  not null,
+    updated_at   datetime(6)  not null,
+    created_by   varchar(255),
+    updated_by   varchar(255),
+    primary key (id),
+    constraint FK1mtsbur82frn64de7balymq9s foreign key (category_id) references category (id)
+) engine=InnoDB;
+
+create table product_variant (
+    id          bigint        not null auto_increment,
+    product_id  bigint        not null,
+    size        enum ('L','M','S','XL','XS','XXL') not null,
+    color_name  varchar(255)  not null,
+    color_hex   varchar(255)  not null,
+    sku         varchar(255)  not null,
+    price       decimal(10,2) not null,
+    primary key (id),
+    constraint uk_product_variant_unique unique (product_id, size, color_hex),
+    constraint UKivtjmjnhkb977nvkx92oyujw8 unique (sku),
+    constraint FKgrbbs9t374m9gg43l6tq1xwdj foreign key (product_id) references product (id)
+) engine=InnoDB;
+
+create table stock (
+    id          bigint      not null auto_increment,
+    product_id  bigint      not null,
+    quantity    integer     not null,
+    reserved    integer     not null,
+    created_at  datetime(6) not null,
+    updated_at  datetime(6) not null,
+    created_by  varchar(255),
+    updated_by  varchar(255),
+    primary key (id),
+    constraint UKkhabtqwr86p7x9mt2krib98tx unique (product_id),
+    constraint FKjghkvw2snnsr5gpct0of7xfcf foreign key (product_id) references product (id)
+) engine=InnoDB;
+
+create table cart (
+    id           bigint      not null auto_increment,
+    user_id      bigint      not null,
+    total_price  float(53)   not null,
+    created_at   datetime(6) not null,
+    updated_at   datetime(6) not null,
+    created_by   varchar(255),
+    updated_by   varchar(255),
+    primary key (id),
+    constraint FKl70asp4l4w0jmbm1tqyofho4o foreign key (user_id) references `user` (id)
+) engine=InnoDB;
+
+create table cart_item (
+    id           bigint      not null,
+    cart_id      bigint      not null,
+    product_id   bigint      not null,
+    variant_id   bigint,
+    quantity     integer     not null,
+    unit_price   float(53)   not null,
+    total_price  float(53)   not null,
+    created_at   datetime(6) not null,
+    updated_at   datetime(6) not null,
+    created_by   varchar(255),
+    updated_by   varchar(255),
+    primary key (id),
+    constraint uk_cart_item_unique unique (cart_id, product_id, variant_id),
+    constraint FK1uobyhgl1wvgt1jpccia8xxs3 foreign key (cart_id) references cart (id),
+    constraint FKjcyd5wv4igqnw413rgxbfu4nv foreign key (product_id) references product (id),
+    constraint FK3fx72yo9k5xauka8mlto7a8bf foreign key (variant_id) references product_variant (id)
+) engine=InnoDB;
+
+create table orders (
+    id                bigint        not null auto_increment,
+    order_number      varchar(20)   not null,
+    user_id           bigint        not null,
+    status            enum ('CANCELADO','ENTREGADO','ENVIADO','PAGADO','PENDIENTE','PREPARANDO') not null,
+    total_amount      decimal(10,2) not null,
+    shipping_address  varchar(255),
+    notes             varchar(500),
+    created_at        datetime(6)   not null,
+    updated_at        datetime(6)   not null,
+    created_by        varchar(255),
+    updated_by        varchar(255),
+    primary key (id),
+    constraint UKnthkiu7pgmnqnu86i2jyoe2v7 unique (order_number),
+    constraint FKel9kyl84ego2otj2accfd8mr7 foreign key (user_id) references `user` (id)
+) engine=InnoDB;
+
+create table order_items (
+    id                  bigint        not null,
+    order_id            bigint        not null,
+    product_id          bigint        not null,
+    product_variant_id  bigint,
+    quantity            integer       not null,
+    unit_price          decimal(10,2) not null,
+    total_price         decimal(10,2) not null,
+    created_at          datetime(6)   not null,
+    updated_at          datetime(6)   not null,
+    created_by          varchar(255),
+    updated_by          varchar(255),
+    primary key (id),
+    constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (id),
+    constraint FKlf6f9q956mt144wiv6p1yko16 foreign key (product_id) references product (id),
+    constraint FKfs2957rmo1w14ci66ec6kg5er foreign key (product_variant_id) references product_variant (id)
+) engine=InnoDB;
+
+-- MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila (allocationSize = 50)
+create table cart_item_seq (next_val bigint) engine=InnoDB;
+insert into cart_item_seq values (1);
+
+create table order_items_seq (next_val bigint) engine=InnoDB;
+insert into order_items_seq values (1);
@@ -0,0 +1,29 @@
+-- Índices para las consultas frecuentes de los repositorios.
+-- Todos terminan en id: el desempate del orden y del keyset queda resuelto dentro del índice.
+
+-- OrderRepository: listados e historial de un usuario (findByUser, findSummariesByUserId,
+-- findLatestSummariesByUserId, findSummariesByUserIdBefore), ordenados por created_at desc, id desc.
+-- También sirve de índice para la FK user_id.
+create index idx_orders_user_created on orders (user_id, created_at, id);
+
+-- OrderRepository: findByStatus / panel de administración por estado
+create index idx_orders_status_created on orders (status, created_at, id);
+
+-- ProductRepository: filtro por categoría (inCategory) y destacados (findByFeaturedTrue)
+create index idx_product_category on product (category_id, id);
+create index idx_product_featured on product (featured, id);
+
+-- ProductRepository: rango de precio y orden/keyset por precio, nombre y fecha de alta (ProductSort)
+create index idx_product_price on product (price, id);
+create index idx_product_name on product (name, id);
+create index idx_product_created on product (created_at, id);
+
+-- ProductSpecifications.hasVariant (EXISTS por producto, talla y color) y facetas por talla/color
+create index idx_product_variant_product_size_color on product_variant (product_id, size, color_name);
+create index idx_product_variant_size_color on product_variant (size, color_name, product_id);
+
+-- OrderItemRepository.sumUnitsSoldByProduct: se resuelve recorriendo sólo el índice
+create index idx_order_items_product_quantity on order_items (product_id, quantity);
+
+-- StockRepository (findByProductId, findAllByProductIdForUpdate, reserve/release/consume)
+-- ya usa la unique de stock.product_id: no necesita un índice adicional.
@@ -0,0 +1,15 @@
+-- Tablas de secuencia de cart_item y order_items (generador pooled de Hibernate, allocationSize = 50).
+-- Las bases creadas antes con ddl-auto quedan marcadas como versión 1 y no corren las tablas de V1:
+-- puede que no existan, o que ddl-auto: update las haya creado con next_val = 1 aunque la tabla ya
+-- tenga filas con ids asignados por auto_increment.
+-- Con el optimizador pooled, next_val es el extremo superior del próximo bloque (se reparten
+-- next_val - 49 .. next_val), así que debe quedar al menos 50 por encima del id más alto.
+-- En una base nueva (tabla vacía) queda en 50 y los ids empiezan en 1, igual que antes.
+
+create table if not exists cart_item_seq (next_val bigint) engine=InnoDB;
+delete from cart_item_seq;
+insert into cart_item_seq (next_val) select coalesce(max(id), 0) + 50 from cart_item;
+
+create table if not exists order_items_seq (next_val bigint) engine=InnoDB;
+delete from order_items_seq;
+insert into order_items_seq (next_val) select coalesce(max(id), 0) + 50 from order_items;
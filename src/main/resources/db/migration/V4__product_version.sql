@@ -0,0 +1,14 @@
+-- Versiones persistidas de cada producto, de las que salen los ETag del catálogo (CatalogVersions).
+-- data_version cambia con el producto, sus variantes o su categoría; stock_version, con su stock.
+-- Va en una tabla aparte (y sin FK) para no bloquear la fila de product, que los checkouts leen
+-- con bloqueo compartido al insertar order_items. Las filas de productos borrados quedan:
+-- así la suma de versiones de todo el catálogo nunca retrocede.
+
+create table product_version (
+    product_id    bigint not null,
+    data_version  bigint not null,
+    stock_version bigint not null,
+    primary key (product_id)
+) engine=InnoDB;
+
+insert into product_version (product_id, data_version, stock_version) select id, 1, 1 from product;
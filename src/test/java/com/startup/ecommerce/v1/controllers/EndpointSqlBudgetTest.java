@@ -0,0 +1,168 @@
+package com.startup.ecommerce.v1.controllers;
+
+import com.startup.ecommerce.v1.entities.CategoryEntity;
+import com.startup.ecommerce.v1.entities.OrderEntity;
+import com.startup.ecommerce.v1.entities.OrderItemEntity;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.entities.StockEntity;
+import com.startup.ecommerce.v1.entities.UserEntity;
+import com.startup.ecommerce.v1.entities.enums.OrderStatus;
+import com.startup.ecommerce.v1.entities.enums.Role;
+import com.startup.ecommerce.v1.entities.enums.Size;
+import com.startup.ecommerce.v1.security.JwtUtil;
+import com.startup.ecommerce.v1.sql.MaxSqlStatements;
+import com.startup.ecommerce.v1.sql.SqlStatementCountHeaderAdvice;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint: cada producto tiene varias variantes y cada orden varios items,
+ * así que una carga perezosa o una consulta por variante en el mapeo a DTO supera el tope y rompe el build.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointSqlBudgetTest {
+
+    private static final int PRODUCTS = 4;
+    private static final int VARIANTS_PER_PRODUCT = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final String suffix = UUID.randomUUID().toString().substring(0, 8);
+    private UserEntity user;
+    private CategoryEntity category;
+    private List<ProductEntity> products;
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            user = UserEntity.builder()
+                    .name("Cliente").email("budget-" + suffix + "@mail.com").password("x").role(Role.CLIENTE).build();
+            entityManager.persist(user);
+            category = new CategoryEntity();
+            category.setName("Presupuesto " + suffix);
+            entityManager.persist(category);
+
+            products = new ArrayList<>();
+            List<ProductVariantEntity> variants = new ArrayList<>();
+            for (int p = 0; p < PRODUCTS; p++) {
+                ProductEntity product = new ProductEntity();
+                product.setName("Remera " + suffix + " " + p);
+                product.setPrice(100.0);
+                product.setImage("remera.png");
+                product.setCategory(category);
+                entityManager.persist(product);
+                products.add(product);
+                entityManager.persist(StockEntity.builder().product(product).quantity(10).build());
+                for (int v = 0; v < VARIANTS_PER_PRODUCT; v++) {
+                    ProductVariantEntity variant = ProductVariantEntity.builder()
+                            .product(product).size(Size.values()[v]).colorName("Negro").colorHex("#000000")
+                            .sku(suffix + "-" + p + "-" + v).price(BigDecimal.TEN).build();
+                    entityManager.persist(variant);
+                    variants.add(variant);
+                }
+            }
+
+            OrderEntity order = OrderEntity.builder()
+                    .orderNumber("S" + suffix)
+                    .user(user)
+                    .status(OrderStatus.PENDIENTE)
+                    .totalAmount(BigDecimal.valueOf(120))
+                    .build();
+            entityManager.persist(order);
+            for (ProductVariantEntity variant : variants) {
+                OrderItemEntity item = new OrderItemEntity();
+                item.setOrder(order);
+                item.setProduct(variant.getProduct());
+                item.setVariant(variant);
+                item.setQuantity(1);
+                item.setUnitPrice(BigDecimal.TEN);
+                item.setTotalPrice(BigDecimal.TEN);
+                entityManager.persist(item);
+            }
+            orderId = order.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        // La base H2 es compartida con el resto de los tests: se borra lo creado
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.createQuery("delete from OrderItemEntity i where i.order.id = :id").setParameter("id", orderId).executeUpdate();
+            entityManager.createQuery("delete from OrderEntity o where o.id = :id").setParameter("id", orderId).executeUpdate();
+            entityManager.createQuery("delete from StockEntity s where s.product in :products").setParameter("products", products).executeUpdate();
+            entityManager.createQuery("delete from ProductVariantEntity v where v.product in :products").setParameter("products", products).executeUpdate();
+            entityManager.createQuery("delete from ProductEntity p where p in :products").setParameter("products", products).executeUpdate();
+            entityManager.createQuery("delete from ProductVersionEntity v where v.productId in :ids")
+                    .setParameter("ids", products.stream().map(ProductEntity::getId).toList()).executeUpdate();
+            entityManager.createQuery("delete from CategoryEntity c where c.id = :id").setParameter("id", category.getId()).executeUpdate();
+            entityManager.createQuery("delete from UserEntity u where u.id = :id").setParameter("id", user.getId()).executeUpdate();
+        });
+    }
+
+    // Detalle y variantes incluyen dos lecturas de product_version: el ETag y la clave de la caché del catálogo
+    @Test
+    @MaxSqlStatements(6)
+    void productById() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", products.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.variants.length()").value(VARIANTS_PER_PRODUCT))
+                .andExpect(header().exists(SqlStatementCountHeaderAdvice.HEADER));
+    }
+
+    @Test
+    @MaxSqlStatements(7)
+    void productVariants() throws Exception {
+        mockMvc.perform(get("/api/products/{id}/variants", products.get(0).getId()).header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(VARIANTS_PER_PRODUCT));
+    }
+
+    @Test
+    @MaxSqlStatements(3)
+    void productScroll() throws Exception {
+        mockMvc.perform(get("/api/products/scroll").param("sizePage", "50"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxSqlStatements(3)
+    void orderById() throws Exception {
+        mockMvc.perform(get("/api/orders/{id}", orderId).header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(PRODUCTS * VARIANTS_PER_PRODUCT));
+    }
+
+    private String bearer() {
+        return "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail(), Role.CLIENTE.name());
+    }
+}
@@ -0,0 +1,148 @@
+package com.startup.ecommerce.v1.datasource;
+
+import com.startup.ecommerce.v1.config.ReplicaDataSourceConfig;
+import jakarta.persistence.EntityManager;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos bases H2 en memoria hacen de primario (la del perfil test) y de réplica.
+ * El atraso de la réplica se simula con la tabla replica_lag, que es lo que lee la lag-query.
+ */
+@DataJpaTest(properties = {
+        "app.datasource.replica.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "app.datasource.replica.lag-query=select seconds from replica_lag",
+        "app.datasource.replica.max-lag=PT5S"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReplicaDataSourceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:tienda_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        execute("create table if not exists replica_lag (seconds bigint)", "delete from replica_lag", "insert into replica_lag values (0)");
+    }
+
+    @AfterEach
+    void replicaCaughtUp() throws SQLException {
+        execute("update replica_lag set seconds = 0");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        monitor.check();
+
+        assertThat(monitor.healthyReplicas()).containsExactly("replica-1");
+        assertThat(database(true)).isEqualTo("tienda_replica");
+        assertThat(database(false)).isEqualTo("tienda_test");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLags() throws SQLException {
+        execute("update replica_lag set seconds = 30");
+        monitor.check();
+
+        assertThat(monitor.healthyReplicas()).isEmpty();
+        assertThat(database(true)).isEqualTo("tienda_test");
+
+        execute("update replica_lag set seconds = 1");
+        monitor.check();
+
+        assertThat(database(true)).isEqualTo("tienda_replica");
+    }
+
+    @Test
+    void aReplicaThatStopsReplicatingIsTakenOutOfRotation() throws SQLException {
+        execute("update replica_lag set seconds = null");
+        monitor.check();
+
+        assertThat(database(true)).isEqualTo("tienda_test");
+    }
+
+    @Test
+    void aHungLagCheckTakesTheReplicasOutOfRotation() throws Exception {
+        AtomicBoolean hang = new AtomicBoolean();
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL(REPLICA_URL);
+        h2.setUser("sa");
+        DataSource replica = new DelegatingDataSource(h2) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (hang.get()) {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.getConnection();
+            }
+        };
+        try (ReplicaLagMonitor monitor = new ReplicaLagMonitor(Map.of("replica-1", replica), "select seconds from replica_lag",
+                Duration.ofSeconds(5), Duration.ofMillis(100), Duration.ofMillis(100))) {
+            // Los chequeos corren solos, en su propio hilo
+            assertThat(eventually(() -> !monitor.healthyReplicas().isEmpty())).isTrue();
+
+            // La réplica deja de contestar: el chequeo queda trabado y no llega a marcarla
+            hang.set(true);
+            assertThat(eventually(() -> monitor.healthyReplicas().isEmpty())).isTrue();
+        }
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> String.valueOf(em.createNativeQuery("select database()").getSingleResult()).toLowerCase());
+    }
+
+    private static void execute(String... sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String s : sql) statement.execute(s);
+        }
+    }
+}
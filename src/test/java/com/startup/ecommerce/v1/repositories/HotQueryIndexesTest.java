@@ -0,0 +1,264 @@
+package com.startup.ecommerce.v1.repositories;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import com.startup.ecommerce.v1.repositories.specifications.ProductSpecifications;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Corre las migraciones de Flyway sobre un MySQL real (con ddl-auto: validate contra las entidades)
+ * y verifica con EXPLAIN que las consultas frecuentes de los repositorios usan un índice. Las sentencias
+ * no están escritas a mano: se capturan del driver al llamar a los métodos de los repositorios y a las
+ * Specifications con los mismos argumentos que usan los servicios.
+ * Cada subclase aporta el contenedor (ver mysql()) con la base de partida. Sin Docker disponible se omite.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class HotQueryIndexesTest {
+
+    private static final int USERS = 100;
+    private static final int PRODUCTS = 5000;
+    private static final int ORDERS = 10000;
+    private static final String[] COLORS = {"Negro", "Blanco", "Rojo", "Azul", "Verde", "Gris", "Beige", "Rosa"};
+
+    private static final Pattern TABLE_ALIAS = Pattern.compile(
+            "\\b(?:from|join|update)\\s+`?(\\w+)`?(?:\\s+(?!(?:set|where|on|left|inner|join|order|group|limit|for)\\b)(\\w+))?",
+            Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private StockRepository stockRepository;
+
+    /**
+     * Datos con volumen y distribución parecidos a producción: con tablas casi vacías
+     * el optimizador prefiere recorrerlas completas y el EXPLAIN no dice nada.
+     */
+    @BeforeAll
+    static void seed(@Autowired DataSource dataSource) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "Usuario " + i, "usuario" + i + "@tienda.com", now, now});
+        }
+        jdbc.batchUpdate("insert into `user` (id, name, email, password, role, enabled, created_at, updated_at) "
+                + "values (?, ?, ?, 'x', 'CLIENTE', 1, ?, ?)", users);
+
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            categories.add(new Object[]{i, "Categoria " + i});
+        }
+        jdbc.batchUpdate("insert into category (id, name) values (?, ?)", categories);
+
+        List<Object[]> products = new ArrayList<>();
+        List<Object[]> variants = new ArrayList<>();
+        List<Object[]> stock = new ArrayList<>();
+        for (int i = 1; i <= PRODUCTS; i++) {
+            Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusMinutes(i));
+            products.add(new Object[]{i, "Producto " + i, 1000.0 + (i * 37) % 99000, 1 + i % 10, i % 200 == 0, created, created});
+            variants.add(new Object[]{i, "M", COLORS[i % COLORS.length], "SKU-" + i + "-M"});
+            variants.add(new Object[]{i, "L", COLORS[(i + 1) % COLORS.length], "SKU-" + i + "-L"});
+            stock.add(new Object[]{i, 10 + i % 50, now, now});
+        }
+        jdbc.batchUpdate("insert into product (id, name, price, category_id, image, featured, created_at, updated_at) "
+                + "values (?, ?, ?, ?, 'producto.png', ?, ?, ?)", products);
+        jdbc.batchUpdate("insert into product_variant (product_id, size, color_name, color_hex, sku, price) "
+                + "values (?, ?, ?, '#000000', ?, 1000)", variants);
+        jdbc.batchUpdate("insert into stock (product_id, quantity, reserved, created_at, updated_at) "
+                + "values (?, ?, 0, ?, ?)", stock);
+
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ORDERS; i++) {
+            Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusHours(i));
+            String status = i % 50 == 0 ? "PENDIENTE" : "ENTREGADO"; // la mayoría de las órdenes ya se entregó
+            orders.add(new Object[]{i, "ORD-" + i, 1 + i % USERS, status, created, created});
+            items.add(new Object[]{i, i, 1 + i % PRODUCTS, 1 + i % 3, created, created});
+        }
+        jdbc.batchUpdate("insert into orders (id, order_number, user_id, status, total_amount, created_at, updated_at) "
+                + "values (?, ?, ?, ?, 1000, ?, ?)", orders);
+        jdbc.batchUpdate("insert into order_items (id, order_id, product_id, quantity, unit_price, total_price, created_at, updated_at) "
+                + "values (?, ?, ?, ?, 1000, 1000, ?, ?)", items);
+
+        jdbc.execute("analyze table `user`, category, product, product_variant, stock, orders, order_items");
+    }
+
+    static Stream<Arguments> hotQueries() {
+        LocalDateTime cursor = LocalDateTime.now().minusDays(10);
+        return Stream.of(
+                Arguments.of("historial de un usuario (página)", "orders", call(test -> test.orderRepository.findSummariesByUserId(7L,
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")))))),
+                Arguments.of("historial de un usuario", "orders", call(test -> test.orderRepository.findLatestSummariesByUserId(7L, Limit.of(11)))),
+                Arguments.of("historial de un usuario (keyset)", "orders", call(test -> test.orderRepository.findSummariesByUserIdBefore(7L,
+                        cursor, 500L, Limit.of(11)))),
+                Arguments.of("detalle de una orden", "order_items", call(test -> test.orderRepository.findWithDetailsById(500L))),
+                Arguments.of("productos destacados", "product", call(test -> test.productRepository.findByFeaturedTrue())),
+                Arguments.of("productos de una categoría", "product", call(test -> test.productRepository.findAll(
+                        Specification.allOf(ProductSpecifications.inCategory(" Categoria 3 "), ProductSpecifications.fetchCategory()),
+                        PageRequest.of(0, 20, Sort.by("id"))))),
+                Arguments.of("rango de precio ordenado por precio", "product", call(test -> test.productRepository.findAll(
+                        Specification.allOf(ProductSpecifications.priceAtLeast(2000.0), ProductSpecifications.priceAtMost(2500.0),
+                                ProductSpecifications.fetchCategory()),
+                        PageRequest.of(0, 20, Sort.by("price").and(Sort.by("id")))))),
+                Arguments.of("orden por nombre (keyset)", "product", call(test -> test.productRepository.findBy(
+                        Specification.allOf(ProductSpecifications.seekAfter("name", false, "Producto 4", 4L, false),
+                                ProductSpecifications.fetchCategory()),
+                        q -> q.sortBy(Sort.by("name").and(Sort.by("id"))).limit(21).all()))),
+                Arguments.of("productos con talla y color", "product_variant", call(test -> test.productRepository.findAll(
+                        Specification.allOf(ProductSpecifications.hasVariant("M", "Negro"), ProductSpecifications.fetchCategory()),
+                        PageRequest.of(0, 20, Sort.by("id"))))),
+                Arguments.of("faceta de talla", "product_variant", call(test -> test.productRepository.countBySize(
+                        ProductSpecifications.inCategory("Categoria 3"), "Negro"))),
+                Arguments.of("bloqueo de stock para el checkout", "stock", call(test -> test.stockRepository.findAllByProductIdForUpdate(
+                        List.of(3L, 14L, 15L, 92L)))),
+                Arguments.of("reserva condicional de stock", "stock", call(test -> test.stockRepository.reserve(42L, 1))),
+                Arguments.of("unidades vendidas por producto", "order_items", call(test -> test.orderItemRepository.sumUnitsSoldByProduct())));
+    }
+
+    /**
+     * Ejecuta la llamada al repositorio (como la hacen los servicios) y pasa por EXPLAIN cada sentencia
+     * que el driver envió, con los valores ya enlazados. En las que leen la tabla indicada, esa tabla
+     * tiene que accederse por un índice.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesAnIndex(String description, String table, Consumer<HotQueryIndexesTest> call) {
+        List<String> statements = CapturedSql.during(() -> call.accept(this));
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        int checked = 0;
+        for (String sql : statements) {
+            Set<String> aliases = aliasesOf(sql, table);
+            if (aliases.isEmpty()) continue;
+            List<Map<String, Object>> plan = jdbc.queryForList("explain " + sql);
+            for (Map<String, Object> row : plan) {
+                if (!aliases.contains(String.valueOf(row.get("table")))) continue;
+                checked++;
+                assertThat(row.get("key")).as("índice usado por '%s': %s%n%s", description, sql, plan).isNotNull();
+                assertThat(row.get("type")).as("acceso a %s en '%s': %s%n%s", table, description, sql, plan).isNotEqualTo("ALL");
+            }
+        }
+        assertThat(checked).as("ninguna sentencia de '%s' lee %s: %s", description, table, statements).isPositive();
+    }
+
+    /**
+     * Contenedor de MySQL con CapturedSql registrado en la URL de conexión.
+     */
+    static MySQLContainer<?> mysql() {
+        return new MySQLContainer<>("mysql:8.4").withUrlParam("queryInterceptors", CapturedSql.class.getName());
+    }
+
+    private static Consumer<HotQueryIndexesTest> call(Consumer<HotQueryIndexesTest> call) {
+        return call;
+    }
+
+    /**
+     * Nombres con los que la sentencia usa la tabla (Hibernate le da un alias: product p1_0), vacío si no la usa.
+     */
+    private static Set<String> aliasesOf(String sql, String table) {
+        Set<String> aliases = new HashSet<>();
+        Matcher matcher = TABLE_ALIAS.matcher(sql);
+        while (matcher.find()) {
+            if (!matcher.group(1).equalsIgnoreCase(table)) continue;
+            aliases.add(matcher.group(1));
+            if (matcher.group(2) != null) aliases.add(matcher.group(2));
+        }
+        return aliases;
+    }
+
+    /**
+     * Interceptor de Connector/J: guarda el texto de cada sentencia que el driver envía mientras haya una
+     * captura abierta en el hilo. Sin useServerPrepStmts los PreparedStatement se arman del lado del cliente,
+     * así que el texto ya trae los valores y es exactamente lo que ejecuta MySQL. El StatementInspector de
+     * Hibernate no sirve acá: ve la sentencia con los ? y EXPLAIN necesita los valores para elegir el plan.
+     * Es público porque el driver lo instancia por reflexión.
+     */
+    public static class CapturedSql implements QueryInterceptor {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+        private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(select|insert|update|delete)\\b", Pattern.CASE_INSENSITIVE);
+
+        static List<String> during(Runnable call) {
+            List<String> captured = new ArrayList<>();
+            CAPTURED.set(captured);
+            try {
+                call.run();
+            } finally {
+                CAPTURED.remove();
+            }
+            return captured;
+        }
+
+        @Override
+        public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+            return this;
+        }
+
+        @Override
+        public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+            List<String> captured = CAPTURED.get();
+            if (captured != null && sql != null) {
+                String text = sql.get();
+                if (text != null && EXPLAINABLE.matcher(text).find()) captured.add(text);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean executeTopLevelOnly() {
+            return true;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet, ServerSession serverSession) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.startup.ecommerce.v1.repositories;
+
+import com.startup.ecommerce.v1.entities.CartEntity;
+import com.startup.ecommerce.v1.entities.CartItemEntity;
+import com.startup.ecommerce.v1.entities.OrderEntity;
+import com.startup.ecommerce.v1.entities.OrderItemEntity;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.UserEntity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Base creada antes de Flyway con ddl-auto: update y con datos: Flyway la marca como versión 1
+ * (baseline) y sólo corre de V2 en adelante. Además de los índices, verifica que las tablas de secuencia
+ * quedan por encima de los ids existentes, tanto si ddl-auto las creó (con next_val = 1) como si faltan.
+ */
+class LegacyDatabaseHotQueryIndexesTest extends HotQueryIndexesTest {
+
+    private static final long LEGACY_ID = 20_000;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = legacyDatabase();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Sólo DataSource y JPA, como arrancaba la aplicación con ddl-auto: update
+     */
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+    @EntityScan(basePackageClasses = UserEntity.class)
+    static class LegacySchema {
+    }
+
+    private static MySQLContainer<?> legacyDatabase() {
+        MySQLContainer<?> container = mysql();
+        container.start();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LegacySchema.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + container.getJdbcUrl(),
+                        "--spring.datasource.username=" + container.getUsername(),
+                        "--spring.datasource.password=" + container.getPassword(),
+                        "--spring.datasource.driver-class-name=" + container.getDriverClassName(),
+                        "--spring.jpa.hibernate.ddl-auto=update")) {
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbc.update("insert into `user` (id, name, email, password, role, enabled, created_at, updated_at) "
+                    + "values (?, 'Cliente', 'cliente@legacy.com', 'x', 'CLIENTE', 1, ?, ?)", LEGACY_ID, now, now);
+            jdbc.update("insert into category (id, name) values (?, 'Legacy')", LEGACY_ID);
+            jdbc.update("insert into product (id, name, price, category_id, image, featured, created_at, updated_at) "
+                    + "values (?, 'Legacy', 1000, ?, 'producto.png', 0, ?, ?)", LEGACY_ID, LEGACY_ID, now, now);
+            jdbc.update("insert into cart (id, user_id, total_price, created_at, updated_at) values (?, ?, 1000, ?, ?)",
+                    LEGACY_ID, LEGACY_ID, now, now);
+            jdbc.update("insert into cart_item (id, cart_id, product_id, quantity, unit_price, total_price, created_at, updated_at) "
+                    + "values (?, ?, ?, 1, 1000, 1000, ?, ?)", LEGACY_ID, LEGACY_ID, LEGACY_ID, now, now);
+            jdbc.update("insert into orders (id, order_number, user_id, status, total_amount, created_at, updated_at) "
+                    + "values (?, 'ORD-LEGACY', ?, 'ENTREGADO', 1000, ?, ?)", LEGACY_ID, LEGACY_ID, now, now);
+            jdbc.update("insert into order_items (id, order_id, product_id, quantity, unit_price, total_price, created_at, updated_at) "
+                    + "values (?, ?, ?, 1, 1000, 1000, ?, ?)", LEGACY_ID, LEGACY_ID, LEGACY_ID, now, now);
+            // order_items_seq queda como la dejó ddl-auto (next_val = 1); cart_item_seq, como si no existiera
+            jdbc.execute("drop table cart_item_seq");
+            // product_version llegó con V4: antes de Flyway no existía
+            jdbc.execute("drop table product_version");
+        }
+        return container;
+    }
+
+    @Test
+    void newItemsDoNotReuseExistingIds() {
+        LocalDateTime now = LocalDateTime.now();
+        CartItemEntity cartItem = CartItemEntity.builder()
+                .cart(entityManager.find(CartEntity.class, LEGACY_ID))
+                .product(entityManager.find(ProductEntity.class, 1L))
+                .quantity(1).unitPrice(1000.0).totalPrice(1000.0)
+                .build();
+        cartItem.setCreatedAt(now);
+        cartItem.setUpdatedAt(now);
+        entityManager.persist(cartItem);
+
+        OrderItemEntity orderItem = new OrderItemEntity();
+        orderItem.setOrder(entityManager.find(OrderEntity.class, LEGACY_ID));
+        orderItem.setProduct(entityManager.find(ProductEntity.class, LEGACY_ID));
+        orderItem.setQuantity(1);
+        orderItem.setUnitPrice(BigDecimal.TEN);
+        orderItem.setTotalPrice(BigDecimal.TEN);
+        orderItem.setCreatedAt(now);
+        orderItem.setUpdatedAt(now);
+        entityManager.persist(orderItem);
+        entityManager.flush();
+
+        assertThat(cartItem.getId()).isGreaterThan(LEGACY_ID);
+        assertThat(orderItem.getId()).isGreaterThan(LEGACY_ID);
+    }
+}
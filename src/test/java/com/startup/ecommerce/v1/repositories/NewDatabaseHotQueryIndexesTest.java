@@ -0,0 +1,15 @@
+package com.startup.ecommerce.v1.repositories;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+/**
+ * Base vacía: Flyway crea el esquema completo desde V1.
+ */
+class NewDatabaseHotQueryIndexesTest extends HotQueryIndexesTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = mysql();
+}
@@ -0,0 +1,46 @@
+package com.startup.ecommerce.v1.search;
+
+import com.startup.ecommerce.v1.entities.enums.Size;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductAttributeIndexTest {
+
+    private final ProductAttributeIndex index = new ProductAttributeIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.index(1L, "Buzos", List.of(new ProductAttributeIndex.Variant(Size.M, "Rojo"), new ProductAttributeIndex.Variant(Size.S, "Azul")));
+        index.index(2L, "Buzos", List.of(new ProductAttributeIndex.Variant(Size.M, "Azul")));
+        index.index(3L, "Remeras", List.of(new ProductAttributeIndex.Variant(Size.M, "azul ")));
+        index.markReady();
+    }
+
+    @Test
+    void sizeAndColorMustMatchTheSameVariant() {
+        assertThat(index.match(null, "m", "AZUL").stream()).containsExactly(2, 3);
+        assertThat(index.match("buzos", "M", "Azul").stream()).containsExactly(2);
+        assertThat(index.match(null, null, "azul").stream()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void unknownValuesGiveAnEmptyMatchAndNoFiltersGiveNull() {
+        assertThat(index.match(null, "XXXL", null).stream()).isEmpty();
+        assertThat(index.match("Camperas", null, null).stream()).isEmpty();
+        assertThat(index.match(null, " ", null)).isNull();
+    }
+
+    @Test
+    void reindexingAProductReplacesItsAttributes() {
+        index.index(2L, "Buzos", List.of(new ProductAttributeIndex.Variant(Size.L, "Verde")));
+        assertThat(index.match("Buzos", "M", null).stream()).containsExactly(1);
+        assertThat(index.match(null, "L", "verde").stream()).containsExactly(2);
+
+        index.remove(2L);
+        assertThat(index.match(null, "L", null).stream()).isEmpty();
+    }
+}
@@ -0,0 +1,45 @@
+package com.startup.ecommerce.v1.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void ranksNameMatchesAboveColorMatchesAndIgnoresAccents() {
+        index.index(1L, "Remera básica", "Remeras", List.of("Negro"), List.of("REM-001"));
+        index.index(2L, "Buzo canguro", "Buzos", List.of("Azul"), List.of("BUZ-001"));
+        index.index(3L, "Buzo azul marino", "Buzos", List.of("Gris"), List.of("BUZ-002"));
+
+        assertThat(index.search("azul", 10)).containsExactly(3L, 2L);
+        assertThat(index.search("BASICA", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void matchesEveryWordAsPrefix() {
+        index.index(1L, "Remera básica", "Remeras", List.of("Negro"), List.of("REM-001"));
+        index.index(2L, "Remera estampada", "Remeras", List.of("Blanco"), List.of("REM-002"));
+
+        assertThat(index.search("rem est", 10)).containsExactly(2L);
+        assertThat(index.search("rem001", 10)).containsExactly(1L);
+        assertThat(index.search("rem pantalon", 10)).isEmpty();
+    }
+
+    @Test
+    void reindexReplacesPreviousTermsAndRemoveDropsTheProduct() {
+        index.index(1L, "Remera básica", "Remeras", List.of(), List.of());
+        index.index(1L, "Campera", "Abrigos", List.of(), List.of());
+
+        assertThat(index.search("remera", 10)).isEmpty();
+        assertThat(index.search("campera", 10)).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("campera", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
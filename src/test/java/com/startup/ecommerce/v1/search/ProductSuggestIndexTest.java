@@ -0,0 +1,64 @@
+package com.startup.ecommerce.v1.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSuggestIndexTest {
+
+    private final ProductSuggestIndex index = new ProductSuggestIndex();
+
+    @Test
+    void suggestsByAnyWordOrderedByUnitsSold() {
+        index.load(Map.of(1L, "Buzo azul", 2L, "Remera azulada", 3L, "Campera"), Map.of(2L, 10L, 1L, 3L));
+
+        assertThat(index.suggest("AZU", 10)).extracting(ProductSuggestIndex.Suggestion::productId).containsExactly(2L, 1L);
+        assertThat(index.suggest("azu", 1)).extracting(ProductSuggestIndex.Suggestion::productId).containsExactly(2L);
+        assertThat(index.suggest("cámp", 10)).extracting(ProductSuggestIndex.Suggestion::name).containsExactly("Campera");
+    }
+
+    @Test
+    void appliesPendingUpdatesAndRemovalsInOneBatch() {
+        index.load(Map.of(1L, "Buzo azul", 2L, "Remera"), Map.of());
+
+        index.update(1L, "Buzo gris");
+        index.update(3L, "Buzo rojo");
+        index.remove(2L);
+        assertThat(index.suggest("rem", 10)).hasSize(1); // todavía no se aplicaron
+
+        index.applyPending();
+
+        assertThat(index.suggest("azul", 10)).isEmpty();
+        assertThat(index.suggest("buzo", 10)).extracting(ProductSuggestIndex.Suggestion::productId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.suggest("rem", 10)).isEmpty();
+    }
+
+    @Test
+    void prefixesOfAnyLengthRankTheWholeCatalogNotJustTheFirstKeys() {
+        Map<Long, String> names = new HashMap<>();
+        for (long id = 1; id <= 10_000; id++) {
+            names.put(id, "Aaa " + id);
+        }
+        names.put(99_999L, "Aaazul oscuro"); // alfabéticamente después de todas las "aaa ..."
+        index.load(names, Map.of(99_999L, 50L, 7L, 10L));
+
+        assertThat(index.suggest("a", 1)).extracting(ProductSuggestIndex.Suggestion::productId).containsExactly(99_999L);
+        assertThat(index.suggest("aaa", 2)).extracting(ProductSuggestIndex.Suggestion::productId).containsExactly(99_999L, 7L);
+        // A igualdad de ventas, alfabético
+        assertThat(index.suggest("aaa 9", 2)).extracting(ProductSuggestIndex.Suggestion::name).containsExactly("Aaa 9", "Aaa 90");
+    }
+
+    @Test
+    void refreshedUnitsSoldReorderSuggestions() {
+        index.load(Map.of(1L, "Buzo azul", 2L, "Buzo gris"), Map.of(1L, 10L));
+        assertThat(index.suggest("bu", 1)).extracting(ProductSuggestIndex.Suggestion::productId).containsExactly(1L);
+
+        index.refreshPopularity(Map.of(1L, 10L, 2L, 30L));
+
+        assertThat(index.suggest("bu", 1)).extracting(ProductSuggestIndex.Suggestion::productId).containsExactly(2L);
+        assertThat(index.suggest("buzo", 1)).extracting(ProductSuggestIndex.Suggestion::productId).containsExactly(2L);
+    }
+}
@@ -0,0 +1,74 @@
+package com.startup.ecommerce.v1.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de JwtUtil.parseClaims por pedido autenticado:
+ * - coldCache: cada token se verifica (HMAC y parseo del JSON), como la primera vez que llega.
+ * - warmCache: el token ya está en la caché de tokens verificados (hash SHA-256 y lectura de Caffeine).
+ * No corre con mvn test. Para ejecutarlo:
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *     -Dexec.args="-cp %classpath com.startup.ecommerce.v1.security.JwtUtilBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-con-al-menos-32-bytes-para-hs256";
+    private static final long EXPIRATION_MS = TimeUnit.HOURS.toMillis(1);
+    /** Tokens distintos que se recorren en ronda, como varios usuarios activos */
+    private static final int TOKENS = 1024;
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil(SECRET, EXPIRATION_MS, 0); // sin lugar en la caché: siempre verifica
+        cached = new JwtUtil(SECRET, EXPIRATION_MS, 10_000);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = cached.generateToken((long) i, "usuario" + i + "@mail.com", "CLIENTE");
+            cached.parseClaims(tokens[i]);
+        }
+    }
+
+    @Benchmark
+    public Object coldCache() {
+        return uncached.parseClaims(nextToken()).orElseThrow();
+    }
+
+    @Benchmark
+    public Object warmCache() {
+        return cached.parseClaims(nextToken()).orElseThrow();
+    }
+
+    private String nextToken() {
+        next = (next + 1) % TOKENS;
+        return tokens[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
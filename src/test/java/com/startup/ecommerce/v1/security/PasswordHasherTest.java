@@ -0,0 +1,71 @@
+package com.startup.ecommerce.v1.security;
+
+import com.startup.ecommerce.v1.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) hasher.shutdown();
+    }
+
+    @Test
+    void encodesAndVerifiesWithinTheConfiguredStrength() {
+        hasher = new PasswordHasher(registry, 1, 4, Duration.ofSeconds(5), 6, 4, Duration.ofMillis(50));
+
+        String hash = hasher.encode("secreta");
+
+        assertThat(hasher.matches("secreta", hash)).isTrue();
+        assertThat(hasher.matches("otra", hash)).isFalse();
+        assertThat(registry.get("auth.password.bcrypt.strength").gauge().value()).isBetween(4.0, 6.0);
+        assertThat(registry.get("auth.password.hashing").tag("operation", "verify").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWithoutQueueingWhenThePoolIsSaturated() throws Exception {
+        // Costo alto y fijo: cada hash tarda lo suficiente para que los pedidos se superpongan
+        hasher = new PasswordHasher(registry, 1, 1, Duration.ofSeconds(30), 12, 12, Duration.ofMillis(1));
+        int callers = 6;
+        ExecutorService clients = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                    hasher.encode("secreta");
+                    return true;
+                } catch (ServiceBusyException e) {
+                    return false;
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, clients));
+        }
+        start.countDown();
+
+        long accepted = results.stream().filter(CompletableFuture::join).count();
+        clients.shutdown();
+
+        // Un hilo y un lugar en la cola: a lo sumo dos pedidos en curso a la vez, el resto recibe 503
+        assertThat(accepted).isGreaterThanOrEqualTo(1).isLessThan(callers);
+        assertThat(registry.get("auth.password.rejected").tag("reason", "queue_full").counter().count())
+                .isEqualTo(callers - accepted);
+    }
+}
@@ -0,0 +1,93 @@
+package com.startup.ecommerce.v1.security;
+
+import com.startup.ecommerce.v1.entities.UserEntity;
+import com.startup.ecommerce.v1.entities.enums.Role;
+import com.startup.ecommerce.v1.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Con el principal armado desde el JWT la base no se consulta: deshabilitar, rehabilitar o cambiarle el rol
+ * a un usuario sólo se nota a través de la lista de revocados que mantiene UserDetailsCacheListener.
+ */
+@SpringBootTest(properties = "app.jwt.stateless-principal=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RevokedUserTokenTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private UserEntity user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(UserEntity.builder()
+                .name("Cliente").email("revocado-" + UUID.randomUUID() + "@mail.com").password("x").role(Role.CLIENTE).build());
+        token = jwtUtil.generateToken(user.getId(), user.getEmail(), Role.CLIENTE.name());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void disabledUserIsRejectedUntilEnabledAgain() throws Exception {
+        myOrders(status().isOk());
+
+        user.setEnabled(false);
+        user = userRepository.save(user);
+        myOrders(status().isForbidden());
+
+        user.setEnabled(true);
+        user = userRepository.save(user);
+        myOrders(status().isOk());
+    }
+
+    @Test
+    void demotedAdminTokensAreRejected() throws Exception {
+        user.setRole(Role.ADMIN);
+        user = userRepository.save(user);
+        token = jwtUtil.generateToken(user.getId(), user.getEmail(), Role.ADMIN.name());
+        adminOnly(status().isNotFound());
+
+        user.setRole(Role.CLIENTE);
+        user = userRepository.save(user);
+        adminOnly(status().isForbidden());
+
+        // Un token nuevo, con el rol vigente, sí se acepta
+        token = jwtUtil.generateToken(user.getId(), user.getEmail(), Role.CLIENTE.name());
+        myOrders(status().isOk());
+    }
+
+    private void adminOnly(ResultMatcher expected) throws Exception {
+        mockMvc.perform(patch("/api/orders/{id}/status", Long.MAX_VALUE).param("status", "ENVIADO")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(expected);
+    }
+
+    private void myOrders(ResultMatcher expected) throws Exception {
+        mockMvc.perform(get("/api/orders/my-orders").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(expected);
+    }
+}
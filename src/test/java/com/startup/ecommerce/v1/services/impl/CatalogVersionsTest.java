@@ -0,0 +1,149 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.config.JpaAuditingConfig;
+import com.startup.ecommerce.v1.entities.CategoryEntity;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.StockEntity;
+import com.startup.ecommerce.v1.repositories.CategoryRepository;
+import com.startup.ecommerce.v1.repositories.ProductRepository;
+import com.startup.ecommerce.v1.repositories.ProductVersionRepository;
+import com.startup.ecommerce.v1.repositories.StockRepository;
+import com.startup.ecommerce.v1.services.StockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StockServiceImpl.class, CatalogVersions.class, ServiceMetrics.class, SimpleMeterRegistry.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // los incrementos se escriben al confirmar
+class CatalogVersionsTest {
+
+    @Autowired
+    private CatalogVersions versions;
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private StockRepository stockRepository;
+    @Autowired
+    private ProductVersionRepository versionRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private CategoryEntity category;
+    private ProductEntity product;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        category = new CategoryEntity();
+        category.setName("Remeras");
+        category = categoryRepository.save(category);
+        product = tx.execute(status -> {
+            ProductEntity p = new ProductEntity();
+            p.setName("Remera básica");
+            p.setPrice(10_000.0);
+            p.setImage("remera.png");
+            p.setCategory(category);
+            p = productRepository.save(p);
+            stockRepository.save(StockEntity.builder().product(p).quantity(10).build());
+            return p;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        versionRepository.deleteAll();
+    }
+
+    @Test
+    void newProductsStartWithAVersion() {
+        assertThat(versionRepository.findById(product.getId())).hasValueSatisfying(v -> {
+            assertThat(v.getDataVersion()).isEqualTo(1);
+            assertThat(v.getStockVersion()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void stockChangesMoveTheTagButNotTheDataVersion() {
+        String productTag = versions.productTag(product.getId());
+        String catalogTag = versions.catalogTag();
+        long dataVersion = versions.dataVersion(product.getId());
+
+        stockService.reserveStock(product.getId(), 1); // UPDATE masivo, sin listener
+
+        assertThat(versions.productTag(product.getId())).isNotEqualTo(productTag);
+        assertThat(versions.catalogTag()).isNotEqualTo(catalogTag);
+        assertThat(versions.dataVersion(product.getId())).isEqualTo(dataVersion);
+    }
+
+    @Test
+    void productAndCategoryChangesMoveTheDataVersion() {
+        long dataVersion = versions.dataVersion(product.getId());
+        long catalogDataVersion = versions.catalogDataVersion();
+
+        tx.executeWithoutResult(status -> productRepository.findById(product.getId()).orElseThrow().setName("Remera lisa"));
+        assertThat(versions.dataVersion(product.getId())).isEqualTo(dataVersion + 1);
+
+        tx.executeWithoutResult(status -> categoryRepository.findById(category.getId()).orElseThrow().setName("Remeras y musculosas"));
+        assertThat(versions.dataVersion(product.getId())).isEqualTo(dataVersion + 2);
+        assertThat(versions.catalogDataVersion()).isEqualTo(catalogDataVersion + 2);
+    }
+
+    @Test
+    void tagsFollowTheDatabaseNotThisInstance() {
+        String productTag = versions.productTag(product.getId());
+        String catalogTag = versions.catalogTag();
+
+        // Sin cambios, el ETag se mantiene: el cliente recibe 304
+        assertThat(versions.productTag(product.getId())).isEqualTo(productTag);
+        assertThat(versions.catalogTag()).isEqualTo(catalogTag);
+
+        // Cambio confirmado a través de otra instancia: esta no recibe ningún evento
+        tx.executeWithoutResult(status -> entityManager
+                .createNativeQuery("update product_version set data_version = data_version + 1 where product_id = ?1")
+                .setParameter(1, product.getId())
+                .executeUpdate());
+
+        assertThat(versions.productTag(product.getId())).isNotEqualTo(productTag);
+        assertThat(versions.catalogTag()).isNotEqualTo(catalogTag);
+        assertThat(versions.cacheControl().getHeaderValue()).isEqualTo("no-cache");
+    }
+
+    @Test
+    void rolledBackChangesKeepTheTag() {
+        String productTag = versions.productTag(product.getId());
+
+        tx.executeWithoutResult(status -> {
+            productRepository.findById(product.getId()).orElseThrow().setName("Remera lisa");
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(versions.productTag(product.getId())).isEqualTo(productTag);
+    }
+}
@@ -0,0 +1,209 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.config.JpaAuditingConfig;
+import com.startup.ecommerce.v1.dto.CreateOrderDto;
+import com.startup.ecommerce.v1.dto.CursorPageDto;
+import com.startup.ecommerce.v1.dto.OrderDto;
+import com.startup.ecommerce.v1.dto.OrderSummaryDto;
+import com.startup.ecommerce.v1.entities.CartEntity;
+import com.startup.ecommerce.v1.entities.CartItemEntity;
+import com.startup.ecommerce.v1.entities.CategoryEntity;
+import com.startup.ecommerce.v1.entities.OrderEntity;
+import com.startup.ecommerce.v1.entities.OrderItemEntity;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.entities.StockEntity;
+import com.startup.ecommerce.v1.entities.UserEntity;
+import com.startup.ecommerce.v1.entities.enums.OrderStatus;
+import com.startup.ecommerce.v1.entities.enums.Role;
+import com.startup.ecommerce.v1.entities.enums.Size;
+import com.startup.ecommerce.v1.services.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderServiceImpl.class, StockServiceImpl.class, CatalogVersions.class, ServiceMetrics.class, SimpleMeterRegistry.class, JpaAuditingConfig.class})
+class OrderServiceQueryCountTest {
+
+    private static final int ITEMS_PER_ORDER = 5;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private UserEntity user;
+    private List<ProductVariantEntity> variants;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = em.persist(UserEntity.builder()
+                .name("Cliente").email("cliente@mail.com").password("x").role(Role.CLIENTE).build());
+        CategoryEntity category = new CategoryEntity();
+        category.setName("Buzos");
+        em.persist(category);
+
+        variants = new java.util.ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            ProductEntity product = new ProductEntity();
+            product.setName("Buzo " + i);
+            product.setPrice(100.0);
+            product.setImage("buzo.png");
+            product.setCategory(category);
+            em.persist(product);
+            variants.add(em.persist(ProductVariantEntity.builder()
+                    .product(product).size(Size.M).colorName("Negro").colorHex("#000000")
+                    .sku("BUZO-" + i).price(BigDecimal.TEN).build()));
+        }
+    }
+
+    @Test
+    void getOrderByIdLoadsTheWholeOrderInOneQuery() {
+        Long orderId = persistOrder("A0000001");
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        OrderDto order = orderService.getOrderById(orderId);
+
+        assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER);
+        assertThat(order.getUserName()).isEqualTo("Cliente");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void orderSummariesAreHeadersOnlyAndPageByCursor() {
+        persistOrder("B0000001");
+        persistOrder("B0000002");
+        persistOrder("B0000003");
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        Page<OrderSummaryDto> page = orderService.getOrderSummariesByUserId(user.getId(), 0, 2);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(2).allSatisfy(o -> assertThat(o.getItemCount()).isEqualTo(ITEMS_PER_ORDER));
+        // Contenido + conteo, sin importar cuántos items tenga cada orden
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        CursorPageDto<OrderSummaryDto> first = orderService.scrollOrderSummariesByUserId(user.getId(), null, 2);
+        CursorPageDto<OrderSummaryDto> second = orderService.scrollOrderSummariesByUserId(user.getId(), first.getNextCursor(), 2);
+
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(first.getContent()).extracting(OrderSummaryDto::getId)
+                .doesNotContainAnyElementsOf(second.getContent().stream().map(OrderSummaryDto::getId).toList());
+        assertThat(first.getContent().size() + second.getContent().size()).isEqualTo(3);
+    }
+
+    @Test
+    void createOrderTimesEveryCheckoutPhase() {
+        meterRegistry.clear(); // el registro se comparte con los demás checkouts de la clase
+        CartEntity cart = em.persist(CartEntity.builder().user(user).build());
+        for (ProductVariantEntity variant : variants) {
+            em.persist(StockEntity.builder().product(variant.getProduct()).quantity(10).build());
+            em.persist(CartItemEntity.builder()
+                    .cart(cart).product(variant.getProduct()).variant(variant)
+                    .quantity(2).unitPrice(10.0).totalPrice(20.0).build());
+        }
+        em.flush();
+        em.clear();
+
+        OrderDto order = orderService.createOrder(user.getId(), new CreateOrderDto());
+
+        assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER);
+        assertThat(meterRegistry.get(ServiceMetrics.CHECKOUT).tag("exception", "none").timer().count()).isEqualTo(1);
+        for (String phase : List.of("load_cart", "price", "persist_items", "reserve_stock", "clear_cart")) {
+            assertThat(meterRegistry.get(ServiceMetrics.CHECKOUT_PHASE).tag("operation", phase).timer().count())
+                    .as(phase).isEqualTo(1);
+        }
+        assertThat(meterRegistry.get(ServiceMetrics.STOCK_UNITS).tag("operation", "reserve_all").counter().count())
+                .isEqualTo(2.0 * ITEMS_PER_ORDER);
+    }
+
+    @Test
+    void checkoutStatementsDoNotGrowWithTheNumberOfLines() {
+        Map<Integer, Long> statementsByLines = new LinkedHashMap<>();
+        for (int lines : List.of(1, 10, 100)) {
+            CartEntity cart = em.persist(CartEntity.builder().user(user).build());
+            CategoryEntity category = em.find(CategoryEntity.class, variants.get(0).getProduct().getCategory().getId());
+            for (int i = 0; i < lines; i++) {
+                ProductEntity product = new ProductEntity();
+                product.setName("Remera " + lines + "-" + i);
+                product.setPrice(100.0);
+                product.setImage("remera.png");
+                product.setCategory(category);
+                em.persist(product);
+                ProductVariantEntity variant = em.persist(ProductVariantEntity.builder()
+                        .product(product).size(Size.M).colorName("Negro").colorHex("#000000")
+                        .sku("REM-" + lines + "-" + i).price(BigDecimal.TEN).build());
+                em.persist(StockEntity.builder().product(product).quantity(10).build());
+                em.persist(CartItemEntity.builder()
+                        .cart(cart).product(product).variant(variant)
+                        .quantity(1).unitPrice(10.0).totalPrice(10.0).build());
+            }
+            em.flush();
+            em.clear();
+            statistics.clear();
+
+            OrderDto order = orderService.createOrder(user.getId(), new CreateOrderDto());
+
+            assertThat(order.getItems()).hasSize(lines);
+            statementsByLines.put(lines, statistics.getPrepareStatementCount());
+        }
+        // Carrito, variantes y productos en una consulta; items, stock y carrito se escriben en batch
+        // (hibernate.jdbc.batch_size): sólo se suma un pedido de ids cada 50 líneas (allocationSize de order_items_seq)
+        assertThat(statementsByLines.get(10)).isEqualTo(statementsByLines.get(1));
+        assertThat(statementsByLines.get(100)).isLessThanOrEqualTo(statementsByLines.get(1) + 100 / 50);
+    }
+
+    private Long persistOrder(String orderNumber) {
+        OrderEntity order = em.persist(OrderEntity.builder()
+                .orderNumber(orderNumber)
+                .user(user)
+                .status(OrderStatus.PENDIENTE)
+                .totalAmount(BigDecimal.valueOf(50))
+                .build());
+        for (ProductVariantEntity variant : variants) {
+            OrderItemEntity item = new OrderItemEntity();
+            item.setOrder(order);
+            item.setProduct(variant.getProduct());
+            item.setVariant(variant);
+            item.setQuantity(1);
+            item.setUnitPrice(BigDecimal.TEN);
+            item.setTotalPrice(BigDecimal.TEN);
+            em.persist(item);
+        }
+        return order.getId();
+    }
+}
@@ -0,0 +1,24 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.exceptions.ServiceBusyException;
+import com.startup.ecommerce.v1.services.ProductExportService;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductExportSlotsTest {
+
+    private final ProductExportService exports = new ProductExportServiceImpl(null, null, null, null, null, 1);
+
+    @Test
+    void rejectsExportsBeyondTheLimitUntilASlotIsReleased() {
+        ProductExportService.Slot slot = exports.reserveSlot();
+
+        assertThatThrownBy(exports::reserveSlot).isInstanceOf(ServiceBusyException.class);
+
+        slot.close();
+        slot.close(); // cerrar dos veces no libera un lugar de más
+        exports.reserveSlot();
+        assertThatThrownBy(exports::reserveSlot).isInstanceOf(ServiceBusyException.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.config.JpaAuditingConfig;
+import com.startup.ecommerce.v1.dto.CursorPageDto;
+import com.startup.ecommerce.v1.dto.ProductDto;
+import com.startup.ecommerce.v1.entities.CategoryEntity;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.entities.enums.Size;
+import com.startup.ecommerce.v1.exceptions.InvalidCursorException;
+import com.startup.ecommerce.v1.search.ProductAttributeIndex;
+import com.startup.ecommerce.v1.search.ProductSearchIndex;
+import com.startup.ecommerce.v1.search.ProductSuggestIndex;
+import com.startup.ecommerce.v1.services.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductServiceImpl.class, ProductCatalogCache.class, ProductSearchIndex.class, ProductSuggestIndex.class,
+        ProductAttributeIndex.class, StockServiceImpl.class, CatalogVersions.class, ServiceMetrics.class, SimpleMeterRegistry.class, JpaAuditingConfig.class})
+class ProductScrollTest {
+
+    private static final int PRODUCTS = 23;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private TestEntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        CategoryEntity category = new CategoryEntity();
+        category.setName("Buzos");
+        em.persist(category);
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductEntity product = new ProductEntity();
+            product.setName("Buzo " + (char) ('A' + i % 5)); // nombres y precios repetidos: desempata el id
+            product.setPrice(100.0 * (i % 4));
+            product.setImage("buzo.png");
+            product.setCategory(category);
+            em.persist(product);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"price_asc", "price_desc", "name_asc", "name_desc", "created_desc", "id"})
+    void walkingEveryPageMatchesTheOffsetOrder(String sort) {
+        List<Long> expected = productService.searchProducts(null, "buzos", null, null, null, null, sort, 0, 100)
+                .map(ProductDto::getId).getContent();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<ProductDto> page = productService.scrollProducts(null, "buzos", null, null, null, null, sort, cursor, 5);
+            page.getContent().forEach(p -> walked.add(p.getId()));
+            cursor = page.getNextCursor();
+            assertThat(page.isHasNext()).isEqualTo(cursor != null);
+        } while (cursor != null);
+
+        assertThat(walked).hasSize(PRODUCTS).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void rejectsACursorFromAnotherSortOrder() {
+        String cursor = productService.scrollProducts(null, null, null, null, null, null, "price_asc", null, 5).getNextCursor();
+
+        assertThatThrownBy(() -> productService.scrollProducts(null, null, null, null, null, null, "name_asc", cursor, 5))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void attributeFiltersIgnoreCaseAndSurroundingSpacesLikeTheInMemoryIndex() {
+        CategoryEntity category = new CategoryEntity();
+        category.setName(" Remeras ");
+        em.persist(category);
+        ProductEntity product = new ProductEntity();
+        product.setName("Remera lisa");
+        product.setPrice(100.0);
+        product.setImage("remera.png");
+        product.setCategory(category);
+        em.persist(product);
+        em.persist(ProductVariantEntity.builder()
+                .product(product).size(Size.M).colorName("azul ").colorHex("#0000FF").sku("REM-AZUL-M").price(BigDecimal.TEN).build());
+        em.flush();
+        em.clear();
+
+        assertThat(productService.searchProducts(null, "REMERAS", "m", " AZUL", null, null, null, 0, 10).map(ProductDto::getId).getContent())
+                .containsExactly(product.getId());
+    }
+}
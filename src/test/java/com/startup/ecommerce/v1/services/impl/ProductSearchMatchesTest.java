@@ -0,0 +1,123 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.config.JpaAuditingConfig;
+import com.startup.ecommerce.v1.dto.FacetCountDto;
+import com.startup.ecommerce.v1.dto.ProductDto;
+import com.startup.ecommerce.v1.dto.ProductFacetsDto;
+import com.startup.ecommerce.v1.entities.CategoryEntity;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.ProductVariantEntity;
+import com.startup.ecommerce.v1.entities.enums.Size;
+import com.startup.ecommerce.v1.search.ProductAttributeIndex;
+import com.startup.ecommerce.v1.search.ProductSearchIndex;
+import com.startup.ecommerce.v1.search.ProductSearchIndexer;
+import com.startup.ecommerce.v1.search.ProductSuggestIndex;
+import com.startup.ecommerce.v1.services.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Búsqueda por texto con los índices cargados: filtros, orden y totales tienen que abarcar todas
+ * las coincidencias (no solo las más relevantes) y seguir a la base, no al índice de esta instancia.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductServiceImpl.class, ProductCatalogCache.class, ProductSearchIndex.class, ProductSuggestIndex.class,
+        ProductAttributeIndex.class, ProductSearchIndexer.class, StockServiceImpl.class, CatalogVersions.class,
+        ServiceMetrics.class, SimpleMeterRegistry.class, JpaAuditingConfig.class})
+class ProductSearchMatchesTest {
+
+    private static final int PRODUCTS = 1200;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductSearchIndexer indexer;
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void searchCoversEveryMatch() {
+        CategoryEntity category = new CategoryEntity();
+        category.setName("Remeras");
+        em.persist(category);
+        ProductEntity last = null;
+        for (int i = 0; i < PRODUCTS; i++) {
+            // Mismo puntaje para todas: el índice desempata por id, así que la última es la menos relevante,
+            // y es también la más barata y la única XL
+            last = new ProductEntity();
+            last.setName("Remera " + i);
+            last.setPrice(10_000.0 - i);
+            last.setImage("remera.png");
+            last.setCategory(category);
+            em.persist(last);
+            em.persist(ProductVariantEntity.builder()
+                    .product(last).size(i == PRODUCTS - 1 ? Size.XL : Size.M).colorName("Negro").colorHex("#000000")
+                    .sku("REM-" + i).price(BigDecimal.TEN).build());
+        }
+        em.flush();
+        em.clear();
+        indexer.rebuild();
+
+        assertThat(productService.searchProducts("remera", null, null, null, null, null, null, 0, 12).getTotalElements())
+                .isEqualTo(PRODUCTS);
+
+        Page<ProductDto> xl = productService.searchProducts("remera", null, "XL", null, null, null, null, 0, 12);
+        assertThat(xl.map(ProductDto::getId).getContent()).containsExactly(last.getId());
+
+        Page<ProductDto> cheapest = productService.searchProducts("remera", null, null, null, null, null, "price_asc", 0, 1);
+        assertThat(cheapest.map(ProductDto::getId).getContent()).containsExactly(last.getId());
+        assertThat(cheapest.getTotalElements()).isEqualTo(PRODUCTS);
+
+        // Con talla M elegida, la faceta de talla sigue contando las demás; las otras facetas respetan el filtro
+        ProductFacetsDto facets = productService.getSearchFacets("remera", null, "M", null, null, null);
+        assertThat(facets.getSizes()).containsExactly(new FacetCountDto("M", PRODUCTS - 1L), new FacetCountDto("XL", 1L));
+        assertThat(facets.getCategories()).containsExactly(new FacetCountDto("Remeras", PRODUCTS - 1L));
+    }
+
+    @Test
+    void attributeFiltersFollowTheDatabaseNotTheLocalIndex() {
+        CategoryEntity category = new CategoryEntity();
+        category.setName("Camperas");
+        em.persist(category);
+        ProductEntity edited = campera(category, "Campera rompeviento", Size.M);
+        ProductEntity other = campera(category, "Campera inflable", Size.XL);
+        em.flush();
+        em.clear();
+        indexer.rebuild();
+
+        // Cambio hecho a través de otra instancia: esta no recibe el evento y su índice sigue diciendo M
+        em.getEntityManager().createQuery("update ProductVariantEntity v set v.size = :size where v.product.id = :id")
+                .setParameter("size", Size.XL).setParameter("id", edited.getId()).executeUpdate();
+        em.clear();
+
+        assertThat(productService.searchProducts("campera", null, "XL", null, null, null, null, 0, 12).map(ProductDto::getId).getContent())
+                .containsExactlyInAnyOrder(edited.getId(), other.getId());
+        assertThat(productService.searchProducts("campera", null, "M", null, null, null, null, 0, 12).getContent()).isEmpty();
+    }
+
+    private ProductEntity campera(CategoryEntity category, String name, Size size) {
+        ProductEntity product = new ProductEntity();
+        product.setName(name);
+        product.setPrice(50_000.0);
+        product.setImage("campera.png");
+        product.setCategory(category);
+        em.persist(product);
+        em.persist(ProductVariantEntity.builder()
+                .product(product).size(size).colorName("Negro").colorHex("#000000")
+                .sku("CAM-" + name.hashCode()).price(BigDecimal.TEN).build());
+        return product;
+    }
+}
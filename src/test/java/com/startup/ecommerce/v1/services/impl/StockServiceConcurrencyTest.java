@@ -0,0 +1,147 @@
+package com.startup.ecommerce.v1.services.impl;
+
+import com.startup.ecommerce.v1.config.JpaAuditingConfig;
+import com.startup.ecommerce.v1.entities.CategoryEntity;
+import com.startup.ecommerce.v1.entities.ProductEntity;
+import com.startup.ecommerce.v1.entities.StockEntity;
+import com.startup.ecommerce.v1.exceptions.InsufficientStockException;
+import com.startup.ecommerce.v1.repositories.CategoryRepository;
+import com.startup.ecommerce.v1.repositories.ProductRepository;
+import com.startup.ecommerce.v1.repositories.StockRepository;
+import com.startup.ecommerce.v1.services.StockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StockServiceImpl.class, CatalogVersions.class, ServiceMetrics.class, SimpleMeterRegistry.class, JpaAuditingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada reserva corre en su propia transacción
+class StockServiceConcurrencyTest {
+
+    private static final int STOCK = 50;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private StockRepository stockRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private CategoryEntity category;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        category = new CategoryEntity();
+        category.setName("Remeras");
+        category = categoryRepository.save(category);
+        productId = createProductWithStock("Remera básica", STOCK);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        try {
+                            stockService.reserveStock(productId, 1);
+                            reserved.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        StockEntity stock = stockRepository.findByProductId(productId).orElseThrow();
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - STOCK);
+        assertThat(stock.getReserved()).isEqualTo(STOCK);
+        assertThat(stock.getAvailable()).isZero();
+    }
+
+    @Test
+    void releaseCannotExceedReserved() {
+        stockService.reserveStock(productId, 3);
+
+        assertThatThrownBy(() -> stockService.releaseStock(productId, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Reservado: 3");
+
+        stockService.releaseStock(productId, 3);
+        assertThat(stockRepository.findByProductId(productId).orElseThrow().getReserved()).isZero();
+    }
+
+    @Test
+    void reserveAllIsAllOrNothingAndReportsFailedLines() {
+        Long scarceId = createProductWithStock("Buzo", 2);
+
+        assertThatThrownBy(() -> stockService.reserveAll(Map.of(productId, 5, scarceId, 3)))
+                .isInstanceOfSatisfying(InsufficientStockException.class, e ->
+                        assertThat(e.getShortages()).containsExactly(new InsufficientStockException.Shortage(scarceId, 3, 2)));
+        assertThat(stockRepository.findByProductId(productId).orElseThrow().getReserved()).isZero();
+
+        stockService.reserveAll(Map.of(productId, 5, scarceId, 2));
+        assertThat(stockRepository.findByProductId(productId).orElseThrow().getReserved()).isEqualTo(5);
+        assertThat(stockRepository.findByProductId(scarceId).orElseThrow().getAvailable()).isZero();
+    }
+
+    private Long createProductWithStock(String name, int quantity) {
+        ProductEntity product = new ProductEntity();
+        product.setName(name);
+        product.setPrice(1000.0);
+        product.setImage("producto.png");
+        product.setCategory(category);
+        product = productRepository.save(product);
+        stockRepository.save(StockEntity.builder().product(product).quantity(quantity).reserved(0).build());
+        return product.getId();
+    }
+}
@@ -0,0 +1,22 @@
+package com.startup.ecommerce.v1.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tope de sentencias SQL que puede ejecutar el cuerpo del test (sin contar @BeforeEach/@AfterEach).
+ * En la clase aplica a todos sus tests; en el método, lo pisa.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@ExtendWith(SqlStatementLimitExtension.class)
+public @interface MaxSqlStatements {
+
+    int value();
+}
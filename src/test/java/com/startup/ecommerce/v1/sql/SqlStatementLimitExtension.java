@@ -0,0 +1,55 @@
+package com.startup.ecommerce.v1.sql;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cuenta las sentencias SQL del cuerpo de cada test anotado con {@link MaxSqlStatements} y lo hace fallar
+ * si supera el tope, listando las sentencias repetidas. Usa el mismo contador que el filtro de pedidos,
+ * así que con MockMvc incluye todo lo que hace el endpoint.
+ */
+public class SqlStatementLimitExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlStatementLimitExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementCounter.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementCounter.Scope scope = context.getStore(NAMESPACE)
+                .remove(context.getUniqueId(), SqlStatementCounter.Scope.class);
+        if (scope == null) return;
+        scope.close();
+
+        // Si el test ya falló por otro motivo no se tapa ese error
+        if (context.getExecutionException().isPresent()) return;
+        int max = limit(context);
+        if (scope.count() > max) {
+            throw new AssertionFailedError(String.format("%s ejecutó %d sentencias SQL (máximo %d). Repetidas:%n%s",
+                    context.getDisplayName(), scope.count(), max, describe(scope.repeated())));
+        }
+    }
+
+    private static int limit(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxSqlStatements.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxSqlStatements.class))
+                .map(MaxSqlStatements::value)
+                .orElse(Integer.MAX_VALUE);
+    }
+
+    private static String describe(Map<String, Integer> repeated) {
+        if (repeated.isEmpty()) return "  ninguna";
+        return repeated.entrySet().stream()
+                .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}